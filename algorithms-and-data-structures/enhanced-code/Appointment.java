@@ -0,0 +1,140 @@
+package main;
+
+import java.time.Clock;
+import java.util.Date;
+
+public class Appointment {
+    // Clock used to reject past dates when the caller does not supply one
+    private static final Clock SYSTEM_CLOCK = Clock.systemUTC();
+
+    private final String appointmentId;
+    // Epoch millis; a primitive so time-ordered indexes can never see it change
+    private final long appointmentTime;
+    private final long durationMillis;
+    private String description;
+
+    // Lowercased copy of the description, refreshed by setDescription so searches never fold per entry
+    private String searchDescription;
+
+    // Number of AppointmentService instances holding this appointment; their search caches are
+    // keyed on the current description, so while held it changes only through updateAppointment
+    private int owners;
+
+    // Versions published on a change feed are shared with subscribers and never change
+    private boolean readOnly;
+
+    public Appointment(String appointmentId, Date appointmentDate, String description) {
+        this(appointmentId, appointmentDate, description, 0);
+    }
+
+    // An appointment occupying [appointmentDate, appointmentDate + durationMillis)
+    public Appointment(String appointmentId, Date appointmentDate, String description, long durationMillis) {
+        this(appointmentId, millisOf(appointmentDate), description, durationMillis, SYSTEM_CLOCK);
+    }
+
+    public Appointment(String appointmentId, long appointmentTime, String description) {
+        this(appointmentId, appointmentTime, description, 0, SYSTEM_CLOCK);
+    }
+
+    // An appointment at appointmentTime (epoch millis), which must not be before clock's current time
+    public Appointment(String appointmentId, long appointmentTime, String description, long durationMillis, Clock clock) {
+        if (appointmentId == null || appointmentId.length() > 10) {
+            throw new IllegalArgumentException("Invalid Appointment ID");
+        }
+        if (appointmentTime < clock.millis()) {
+            throw new IllegalArgumentException("Invalid Appointment Date");
+        }
+        if (description == null || description.length() > 50) {
+            throw new IllegalArgumentException("Invalid Description");
+        }
+        if (durationMillis < 0 || appointmentTime + durationMillis < appointmentTime) {
+            throw new IllegalArgumentException("Invalid Appointment Duration");
+        }
+        
+        this.appointmentId = appointmentId;
+        this.appointmentTime = appointmentTime;
+        this.durationMillis = durationMillis;
+        this.description = description;
+        this.searchDescription = SearchText.fold(description);
+    }
+
+    // Copy used for readOnlyVersion; the source was validated when it was built
+    private Appointment(Appointment source) {
+        this.appointmentId = source.appointmentId;
+        this.appointmentTime = source.appointmentTime;
+        this.durationMillis = source.durationMillis;
+        this.description = source.description;
+        this.searchDescription = source.searchDescription;
+        this.readOnly = true;
+    }
+
+    // An immutable copy of this appointment as it is now
+    Appointment readOnlyVersion() {
+        return new Appointment(this);
+    }
+
+    // A null date maps to a time every clock rejects, keeping the original error message
+    private static long millisOf(Date appointmentDate) {
+        return appointmentDate == null ? Long.MIN_VALUE : appointmentDate.getTime();
+    }
+
+    public String getAppointmentId() {
+        return appointmentId;
+    }
+
+    // Epoch millis at which the appointment starts
+    public long getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    // Compatibility accessor for callers that still work with Date; returns a fresh copy each call
+    public Date getAppointmentDate() {
+        return new Date(appointmentTime);
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    // Epoch millis at which the appointment ends (exclusive)
+    public long getEndTime() {
+        return appointmentTime + durationMillis;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        if (readOnly) {
+            throw new IllegalStateException("Appointment version is read-only");
+        }
+        if (owners > 0) {
+            throw new IllegalStateException("Appointment is held by an AppointmentService; use updateAppointment");
+        }
+        applyDescription(description);
+    }
+
+    // Validate and set the description without the ownership check; used by AppointmentService
+    void applyDescription(String description) {
+        if (description == null || description.length() > 50) {
+            throw new IllegalArgumentException("Invalid Description");
+        }
+        this.description = description;
+        this.searchDescription = SearchText.fold(description);
+    }
+
+    // Called by AppointmentService when it starts or stops holding this appointment
+    void claim() {
+        owners++;
+    }
+
+    void release() {
+        owners--;
+    }
+
+    // Folded (lowercased) description used for case-insensitive search
+    public String getSearchDescription() {
+        return searchDescription;
+    }
+}
@@ -0,0 +1,24 @@
+package main;
+
+/**
+ * Two stored appointments whose time ranges overlap. The first one starts no
+ * later than the second.
+ */
+public class AppointmentConflict {
+
+    private final Appointment first;
+    private final Appointment second;
+
+    AppointmentConflict(Appointment first, Appointment second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    public Appointment getFirst() {
+        return first;
+    }
+
+    public Appointment getSecond() {
+        return second;
+    }
+}
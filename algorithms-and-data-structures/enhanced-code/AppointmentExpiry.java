@@ -0,0 +1,186 @@
+package main;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Retires appointments once they are in the past, driven by a hierarchical
+ * timing wheel so each appointment costs O(1) to schedule, cancel and expire.
+ * Optionally fires a reminder a fixed lead time before each appointment starts
+ * and hands every expired appointment to an archive callback.
+ *
+ * Callbacks run on the thread that advances the wheel (the background ticker
+ * after start(), otherwise whoever calls advance). Expired appointments are
+ * removed from the service by the service itself on its next call, so the
+ * ticker never touches the service's maps.
+ */
+public class AppointmentExpiry implements AutoCloseable {
+
+    private final long tickMillis;
+    private final Clock clock;
+    private final TimingWheel<Object> wheel;
+    // Timers of each scheduled appointment
+    private final Map<Appointment, Scheduled> timers = new IdentityHashMap<>();
+
+    private long reminderLeadMillis;
+    private Consumer<Appointment> onReminder;
+    private Consumer<Appointment> onExpired;
+    private AppointmentService service;
+    private ScheduledExecutorService ticker;
+
+    // Reminder entries are wrapped so the wheel can tell them apart from expiries
+    private static final class Reminder {
+        final Appointment appointment;
+
+        Reminder(Appointment appointment) {
+            this.appointment = appointment;
+        }
+    }
+
+    // The expiry timer of an appointment and its reminder timer, or null if none was scheduled
+    private static final class Scheduled {
+        final TimingWheel.Timer<Object> expiry;
+        final TimingWheel.Timer<Object> reminder;
+
+        Scheduled(TimingWheel.Timer<Object> expiry, TimingWheel.Timer<Object> reminder) {
+            this.expiry = expiry;
+            this.reminder = reminder;
+        }
+    }
+
+    public AppointmentExpiry(long tickMillis) {
+        this(tickMillis, Clock.systemUTC());
+    }
+
+    // The ticker reads the time from clock; the wheel starts at the clock's current time
+    public AppointmentExpiry(long tickMillis, Clock clock) {
+        if (tickMillis < 1 || clock == null) {
+            throw new IllegalArgumentException("Invalid tick");
+        }
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(clock.millis() / tickMillis);
+    }
+
+    // Call back leadMillis before each appointment starts; set before attaching to a service
+    public AppointmentExpiry onReminder(long leadMillis, Consumer<Appointment> callback) {
+        if (leadMillis < 0 || callback == null) {
+            throw new IllegalArgumentException("Invalid reminder");
+        }
+        this.reminderLeadMillis = leadMillis;
+        this.onReminder = callback;
+        return this;
+    }
+
+    // Call back with each appointment as it expires, e.g. to archive it
+    public AppointmentExpiry onExpired(Consumer<Appointment> callback) {
+        this.onExpired = callback;
+        return this;
+    }
+
+    // Advance the wheel every tick on a daemon thread
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "appointment-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> advance(clock.millis()),
+                tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    // Fire everything due at or before nowMillis
+    public void advance(long nowMillis) {
+        List<Object> fired = new ArrayList<>();
+        AppointmentService target;
+        synchronized (wheel) {
+            wheel.advance(nowMillis / tickMillis, fired);
+            for (Object value : fired) {
+                if (!(value instanceof Reminder)) {
+                    timers.remove(value);
+                }
+            }
+            target = service;
+        }
+        for (Object value : fired) {
+            if (value instanceof Reminder) {
+                onReminder.accept(((Reminder) value).appointment);
+            } else {
+                Appointment appointment = (Appointment) value;
+                if (target != null) {
+                    target.expired(appointment);
+                }
+                if (onExpired != null) {
+                    onExpired.accept(appointment);
+                }
+            }
+        }
+    }
+
+    // Number of appointments still waiting to expire
+    public int pendingCount() {
+        synchronized (wheel) {
+            return timers.size();
+        }
+    }
+
+    void attach(AppointmentService owner) {
+        synchronized (wheel) {
+            if (service != null) {
+                throw new IllegalStateException("Expiry is already attached to a service");
+            }
+            service = owner;
+        }
+    }
+
+    void schedule(Appointment appointment, long nowMillis) {
+        synchronized (wheel) {
+            TimingWheel.Timer<Object> expiry = wheel.schedule(tickAt(appointment.getEndTime()), appointment);
+            TimingWheel.Timer<Object> reminder = null;
+            long remindAt = timeOf(appointment) - reminderLeadMillis;
+            if (onReminder != null && timeOf(appointment) > nowMillis) {
+                reminder = wheel.schedule(tickAt(Math.max(remindAt, nowMillis)), new Reminder(appointment));
+            }
+            timers.put(appointment, new Scheduled(expiry, reminder));
+        }
+    }
+
+    void cancel(Appointment appointment) {
+        synchronized (wheel) {
+            Scheduled scheduled = timers.remove(appointment);
+            if (scheduled != null) {
+                wheel.cancel(scheduled.expiry);
+                if (scheduled.reminder != null) {
+                    wheel.cancel(scheduled.reminder);
+                }
+            }
+        }
+    }
+
+    // The first tick at or after the given time, so nothing fires early
+    private long tickAt(long millis) {
+        return Math.floorDiv(millis + tickMillis - 1, tickMillis);
+    }
+
+    private static long timeOf(Appointment appointment) {
+        return appointment.getAppointmentTime();
+    }
+}
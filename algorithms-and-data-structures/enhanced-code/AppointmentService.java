@@ -1,39 +1,398 @@
 package main;
 
+import java.time.Clock;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 public class AppointmentService {
     private Map<String, Appointment> appointments = new HashMap<>();
 
+    // Appointments ordered by date (epoch millis); appointments sharing a time are ordered by id
+    private final NavigableMap<Long, NavigableMap<String, Appointment>> appointmentsByDate = new TreeMap<>();
+
+    // Appointment time ranges, for finding overlapping bookings without comparing every pair
+    private final IntervalTree<Appointment> intervals = new IntervalTree<>();
+
+    // Retires past appointments when enabled; expired ones wait here until the next call
+    private AppointmentExpiry expiry;
+    private final ConcurrentLinkedQueue<Appointment> expiredQueue = new ConcurrentLinkedQueue<>();
+
+    // Receives every add and delete (including expiry) when enabled
+    private ChangeFeed<? super Appointment> changeFeed;
+
+    // Results of recent searchAppointments calls; null until enableSearchCache is called
+    private SearchCache<Appointment> searchCache;
+
+    // Scans smaller than this stay on the caller's thread even when a pool is configured
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+
+    // Pool for scanning large stores in parallel; null keeps every search sequential
+    private final ForkJoinPool searchPool;
+    private final int parallelThreshold;
+
+    // Source of "now" for upcoming queries and expiry scheduling; replaceable in tests
+    private final Clock clock;
+
+    public AppointmentService() {
+        this(null, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public AppointmentService(Clock clock) {
+        this(null, DEFAULT_PARALLEL_THRESHOLD, clock);
+    }
+
+    // Searches over at least parallelThreshold appointments are split across the given pool
+    public AppointmentService(ForkJoinPool searchPool, int parallelThreshold) {
+        this(searchPool, parallelThreshold, Clock.systemUTC());
+    }
+
+    public AppointmentService(ForkJoinPool searchPool, int parallelThreshold, Clock clock) {
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("Invalid parallel threshold");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Invalid clock");
+        }
+        this.searchPool = searchPool;
+        this.parallelThreshold = parallelThreshold;
+        this.clock = clock;
+    }
+
     public void addAppointment(Appointment appointment) {
+        retireExpired();
         if (appointments.containsKey(appointment.getAppointmentId())) {
             throw new IllegalArgumentException("Appointment ID already exists");
         }
         appointments.put(appointment.getAppointmentId(), appointment);
+        appointmentsByDate.computeIfAbsent(timeOf(appointment), k -> new TreeMap<>())
+                .put(appointment.getAppointmentId(), appointment);
+        intervals.add(timeOf(appointment), occupiedUntil(appointment), appointment.getAppointmentId(), appointment);
+        appointment.claim();
+        invalidateCached(appointment);
+        publishChange(ChangeEvent.Type.ADD, appointment);
+        if (expiry != null) {
+            expiry.schedule(appointment, clock.millis());
+        }
     }
 
     public void deleteAppointment(String appointmentId) {
+        retireExpired();
         if (!appointments.containsKey(appointmentId)) {
             throw new IllegalArgumentException("Appointment ID not found");
         }
-        appointments.remove(appointmentId);
+        Appointment removed = appointments.get(appointmentId);
+        if (expiry != null) {
+            expiry.cancel(removed);
+        }
+        removeAppointment(removed);
+    }
+
+    // Change the description of a stored appointment, dropping the cached searches that
+    // matched either the old or the new text
+    public void updateAppointment(String appointmentId, String description) {
+        retireExpired();
+        Appointment appointment = appointments.get(appointmentId);
+        if (appointment == null) {
+            throw new IllegalArgumentException("Appointment ID not found");
+        }
+        String oldDescription = appointment.getSearchDescription();
+        appointment.applyDescription(description);
+        if (searchCache != null) {
+            searchCache.invalidate(oldDescription, appointment.getSearchDescription());
+        }
+        publishChange(ChangeEvent.Type.UPDATE, appointment);
     }
 
+    // The returned appointment is live; setDescription throws while it is held here, so use updateAppointment
     public Appointment getAppointment(String appointmentId) {
+        retireExpired();
         return appointments.get(appointmentId);
     }
 
+    private void removeAppointment(Appointment removed) {
+        String appointmentId = removed.getAppointmentId();
+        appointments.remove(appointmentId);
+        Long time = timeOf(removed);
+        NavigableMap<String, Appointment> sameTime = appointmentsByDate.get(time);
+        sameTime.remove(appointmentId);
+        if (sameTime.isEmpty()) {
+            appointmentsByDate.remove(time);
+        }
+        intervals.remove(time, appointmentId);
+        removed.release();
+        invalidateCached(removed);
+        if (changeFeed != null) {
+            changeFeed.publish("AppointmentService", ChangeEvent.Type.DELETE, appointmentId, null);
+        }
+    }
+
     // -------------------- Enhancement: Search & Filtering --------------------
     public List<Appointment> searchAppointments(String criteria) {
+        retireExpired();
+        String query = SearchText.fold(criteria);
+        if (searchCache == null) {
+            return findAppointments(query);
+        }
+        List<Appointment> results = searchCache.get(query);
+        if (results == null) {
+            results = findAppointments(query);
+            searchCache.put(query, results);
+        }
+        return results;
+    }
+
+    private List<Appointment> findAppointments(String query) {
+        if (searchPool != null && appointments.size() >= parallelThreshold) {
+            return ParallelScan.filter(appointments.values(),
+                    appointment -> appointment.getSearchDescription().contains(query), searchPool);
+        }
         List<Appointment> results = new ArrayList<>();
         for (Appointment appointment : appointments.values()) {
-            if (appointment.getDescription().toLowerCase().contains(criteria.toLowerCase())) {
+            if (appointment.getSearchDescription().contains(query)) {
                 results.add(appointment);
             }
         }
         return results;
     }
+
+    // -------------------- Enhancement: Conflict Detection --------------------
+
+    // Add the appointment only if its time range overlaps no stored appointment
+    public void bookAppointment(Appointment appointment) {
+        retireExpired();
+        if (appointments.containsKey(appointment.getAppointmentId())) {
+            throw new IllegalArgumentException("Appointment ID already exists");
+        }
+        if (!findConflicts(appointment).isEmpty()) {
+            throw new IllegalArgumentException("Appointment time conflicts with an existing appointment");
+        }
+        addAppointment(appointment);
+    }
+
+    // Stored appointments, other than this one, whose time range overlaps it, in date order
+    public List<Appointment> findConflicts(Appointment appointment) {
+        retireExpired();
+        List<Appointment> overlapping = new ArrayList<>();
+        intervals.findOverlapping(timeOf(appointment), occupiedUntil(appointment), overlapping);
+        overlapping.removeIf(other -> other.getAppointmentId().equals(appointment.getAppointmentId()));
+        return overlapping;
+    }
+
+    // Every overlapping pair in the store. A sweep in date order keeps only the appointments
+    // still running, so the cost is O(n log n) plus the number of conflicts reported.
+    public List<AppointmentConflict> findAllConflicts() {
+        retireExpired();
+        List<AppointmentConflict> conflicts = new ArrayList<>();
+        PriorityQueue<Appointment> running = new PriorityQueue<>(
+                (a, b) -> Long.compare(occupiedUntil(a), occupiedUntil(b)));
+        for (NavigableMap<String, Appointment> sameTime : appointmentsByDate.values()) {
+            for (Appointment appointment : sameTime.values()) {
+                long start = timeOf(appointment);
+                while (!running.isEmpty() && occupiedUntil(running.peek()) <= start) {
+                    running.poll();
+                }
+                // Everything still running started no later and ends after this one starts
+                for (Appointment earlier : running) {
+                    conflicts.add(new AppointmentConflict(earlier, appointment));
+                }
+                running.add(appointment);
+            }
+        }
+        return conflicts;
+    }
+
+    // End of the range an appointment blocks for conflict checks. A zero-duration appointment
+    // blocks [t, t + 1), so two of them at the same instant still conflict.
+    private static long occupiedUntil(Appointment appointment) {
+        return Math.max(appointment.getEndTime(), timeOf(appointment) + 1);
+    }
+
+    // -------------------- Enhancement: Expiry of Past Appointments --------------------
+
+    // Retire appointments through the given engine once they end; existing ones are scheduled now
+    public void enableExpiry(AppointmentExpiry engine) {
+        if (expiry != null) {
+            throw new IllegalStateException("Expiry is already enabled");
+        }
+        engine.attach(this);
+        expiry = engine;
+        long now = clock.millis();
+        for (Appointment appointment : appointments.values()) {
+            engine.schedule(appointment, now);
+        }
+    }
+
+    // Called by the expiry engine, possibly from its own thread
+    void expired(Appointment appointment) {
+        expiredQueue.add(appointment);
+    }
+
+    // Remove what the engine has expired since the last call; O(1) per appointment
+    private void retireExpired() {
+        Appointment appointment;
+        while ((appointment = expiredQueue.poll()) != null) {
+            // Skip ones deleted, or replaced under the same id, after they expired
+            if (appointments.get(appointment.getAppointmentId()) == appointment) {
+                removeAppointment(appointment);
+            }
+        }
+    }
+
+    // -------------------- Enhancement: Change Feed --------------------
+
+    // Publish every later add, update and delete to the feed, which may be shared with other services
+    public void enableChangeFeed(ChangeFeed<? super Appointment> feed) {
+        changeFeed = feed;
+    }
+
+    // Subscribers get a read-only copy, so a later update cannot change an event they already hold
+    private void publishChange(ChangeEvent.Type type, Appointment appointment) {
+        if (changeFeed != null) {
+            changeFeed.publish("AppointmentService", type, appointment.getAppointmentId(),
+                    appointment.readOnlyVersion());
+        }
+    }
+
+    // -------------------- Enhancement: Search Result Cache --------------------
+
+    // Cache up to maxEntries searchAppointments results, each for at most ttlMillis (0 for no limit)
+    public void enableSearchCache(int maxEntries, long ttlMillis) {
+        searchCache = new SearchCache<>(maxEntries, ttlMillis);
+    }
+
+    public CacheStats getSearchCacheStats() {
+        if (searchCache == null) {
+            throw new IllegalStateException("Search cache is not enabled");
+        }
+        return searchCache.stats();
+    }
+
+    // Drop only the cached searches this appointment's description can satisfy
+    private void invalidateCached(Appointment appointment) {
+        if (searchCache != null) {
+            searchCache.invalidate(appointment.getSearchDescription());
+        }
+    }
+
+    // -------------------- Enhancement: Streaming & Paged Search --------------------
+
+    // Lazily stream matching appointments in date order; consume it before modifying the service
+    public Stream<Appointment> streamAppointments(String criteria) {
+        retireExpired();
+        return streamMatches(SearchText.fold(criteria), appointmentsByDate);
+    }
+
+    // Return at most limit matches in date order, starting after the given page token
+    // (null for the first page). Only as many appointments are examined as the page needs.
+    public SearchPage<Appointment> searchAppointments(String criteria, int limit, String pageToken) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Invalid page size");
+        }
+        retireExpired();
+        String query = SearchText.fold(criteria);
+        Stream<Appointment> remaining;
+        if (pageToken == null) {
+            remaining = streamMatches(query, appointmentsByDate);
+        } else {
+            // Tokens are "<epoch millis>:<appointmentId>" of the last appointment returned
+            int separator = pageToken.indexOf(':');
+            long afterTime;
+            try {
+                afterTime = Long.parseLong(pageToken.substring(0, Math.max(separator, 0)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            String afterId = pageToken.substring(separator + 1);
+            // Resume at the token's time and skip what the previous page returned from that slot
+            remaining = streamMatches(query, appointmentsByDate.tailMap(afterTime, true))
+                    .filter(appointment -> timeOf(appointment) != afterTime
+                            || appointment.getAppointmentId().compareTo(afterId) > 0);
+        }
+        Iterator<Appointment> matches = remaining.iterator();
+        List<Appointment> page = new ArrayList<>(Math.min(limit, 64));
+        while (page.size() < limit && matches.hasNext()) {
+            page.add(matches.next());
+        }
+        String nextPageToken = null;
+        if (matches.hasNext()) {
+            Appointment last = page.get(page.size() - 1);
+            nextPageToken = timeOf(last) + ":" + last.getAppointmentId();
+        }
+        return new SearchPage<>(page, nextPageToken);
+    }
+
+    private static Stream<Appointment> streamMatches(String query,
+            NavigableMap<Long, NavigableMap<String, Appointment>> byDate) {
+        return byDate.values().stream()
+                .flatMap(sameTime -> sameTime.values().stream())
+                .filter(appointment -> appointment.getSearchDescription().contains(query));
+    }
+
+    // -------------------- Enhancement: Time-Ordered Queries --------------------
+
+    // Appointments scheduled at or after start and before end, in date order
+    public List<Appointment> getAppointmentsBetween(Date start, Date end) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Invalid date range");
+        }
+        return getAppointmentsBetween(start.getTime(), end.getTime());
+    }
+
+    // Same as above with epoch millis bounds
+    public List<Appointment> getAppointmentsBetween(long start, long end) {
+        retireExpired();
+        List<Appointment> results = new ArrayList<>();
+        if (start >= end) {
+            return results;
+        }
+        for (NavigableMap<String, Appointment> sameTime : appointmentsByDate.subMap(start, true, end, false).values()) {
+            results.addAll(sameTime.values());
+        }
+        return results;
+    }
+
+    // The first count appointments scheduled at or after from, in date order
+    public List<Appointment> getNextAppointments(Date from, int count) {
+        if (from == null) {
+            throw new IllegalArgumentException("Invalid upcoming query");
+        }
+        return getNextAppointments(from.getTime(), count);
+    }
+
+    // Same as above with an epoch millis starting point
+    public List<Appointment> getNextAppointments(long from, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Invalid upcoming query");
+        }
+        retireExpired();
+        List<Appointment> results = new ArrayList<>(Math.min(count, appointments.size()));
+        for (NavigableMap<String, Appointment> sameTime : appointmentsByDate.tailMap(from, true).values()) {
+            for (Appointment appointment : sameTime.values()) {
+                if (results.size() == count) {
+                    return results;
+                }
+                results.add(appointment);
+            }
+        }
+        return results;
+    }
+
+    // The first count appointments from the service clock's current time onward
+    public List<Appointment> getUpcomingAppointments(int count) {
+        return getNextAppointments(clock.millis(), count);
+    }
+
+    private static long timeOf(Appointment appointment) {
+        return appointment.getAppointmentTime();
+    }
 }
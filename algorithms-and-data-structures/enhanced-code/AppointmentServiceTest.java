@@ -1,12 +1,20 @@
 package test;
 
 import main.Appointment;
+import main.AppointmentConflict;
+import main.AppointmentExpiry;
 import main.AppointmentService;
+import main.SearchPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Date;
 import java.util.Calendar;
+import java.util.concurrent.ForkJoinPool;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class AppointmentServiceTest {
@@ -55,4 +63,271 @@ public class AppointmentServiceTest {
         List<Appointment> results = appointmentService.searchAppointments("Dentist");
         assertTrue(results.isEmpty());
     }
+
+    @Test
+    void testSearchAppointmentsAfterDescriptionChange() {
+        appointmentService.updateAppointment("A1", "Dentist Checkup");
+        assertTrue(appointmentService.searchAppointments("doctor").isEmpty());
+        assertEquals(1, appointmentService.searchAppointments("DENTIST").size());
+    }
+
+    @Test
+    void testStoredAppointmentRejectsDirectDescriptionChange() {
+        Appointment appointment = appointmentService.getAppointment("A1");
+        assertThrows(IllegalStateException.class, () -> appointment.setDescription("Dentist Checkup"));
+        assertEquals(1, appointmentService.searchAppointments("doctor").size());
+        appointmentService.deleteAppointment("A1");
+        appointment.setDescription("Dentist Checkup");
+        assertEquals("Dentist Checkup", appointment.getDescription());
+    }
+
+    @Test
+    void testUpdateAppointmentMissingId() {
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.updateAppointment("A9", "Dentist"));
+    }
+
+    @Test
+    void testGetAppointmentsBetween() {
+        Calendar cal = Calendar.getInstance();
+        Date now = cal.getTime();
+        cal.add(Calendar.HOUR, 36);
+        Date inThirtySixHours = cal.getTime();
+
+        List<Appointment> results = appointmentService.getAppointmentsBetween(now, inThirtySixHours);
+        assertEquals(1, results.size());
+        assertEquals("A1", results.get(0).getAppointmentId());
+    }
+
+    @Test
+    void testGetNextAppointmentsInDateOrder() {
+        List<Appointment> results = appointmentService.getNextAppointments(new Date(), 2);
+        assertEquals(2, results.size());
+        assertEquals("A1", results.get(0).getAppointmentId());
+        assertEquals("A2", results.get(1).getAppointmentId());
+    }
+
+    @Test
+    void testUpcomingAppointmentsSkipDeleted() {
+        appointmentService.deleteAppointment("A1");
+        List<Appointment> results = appointmentService.getUpcomingAppointments(10);
+        assertEquals(2, results.size());
+        assertEquals("A2", results.get(0).getAppointmentId());
+        assertEquals("A3", results.get(1).getAppointmentId());
+    }
+
+    @Test
+    void testGetAppointmentsBetweenRejectsNullBounds() {
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.getAppointmentsBetween(null, new Date()));
+    }
+
+    @Test
+    void testSearchAppointmentsPagesInDateOrder() {
+        SearchPage<Appointment> first = appointmentService.searchAppointments("e", 1, null);
+        assertEquals("A1", first.getResults().get(0).getAppointmentId());
+
+        SearchPage<Appointment> second = appointmentService.searchAppointments("e", 1, first.getNextPageToken());
+        assertEquals("A2", second.getResults().get(0).getAppointmentId());
+
+        // A2 and A3 share a time, so the token must resume within that time slot
+        SearchPage<Appointment> third = appointmentService.searchAppointments("e", 1, second.getNextPageToken());
+        assertEquals("A3", third.getResults().get(0).getAppointmentId());
+        assertNull(third.getNextPageToken());
+    }
+
+    @Test
+    void testSearchAppointmentsRejectsInvalidPageToken() {
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.searchAppointments("e", 1, "A2"));
+    }
+
+    @Test
+    void testStreamAppointmentsFiltersLazily() {
+        assertEquals(1, appointmentService.streamAppointments("demo").count());
+    }
+
+    @Test
+    void testParallelSearchFindsSameAppointments() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            AppointmentService parallel = new AppointmentService(pool, 1);
+            Calendar cal = Calendar.getInstance();
+            cal.add(Calendar.DATE, 1);
+            parallel.addAppointment(new Appointment("A1", cal.getTime(), "Doctor appointment"));
+            parallel.addAppointment(new Appointment("A2", cal.getTime(), "Team meeting with HR"));
+            assertEquals(1, parallel.searchAppointments("doctor").size());
+            assertEquals(2, parallel.searchAppointments("e").size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testSearchCacheInvalidatedByAddAndDelete() {
+        appointmentService.enableSearchCache(16, 0);
+        assertEquals(1, appointmentService.searchAppointments("meeting").size());
+        assertEquals(1, appointmentService.searchAppointments("meeting").size());
+
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.DATE, 3);
+        appointmentService.addAppointment(new Appointment("A4", cal.getTime(), "Budget meeting"));
+        assertEquals(2, appointmentService.searchAppointments("meeting").size());
+        appointmentService.deleteAppointment("A2");
+        assertEquals(1, appointmentService.searchAppointments("meeting").size());
+        assertEquals(1, appointmentService.getSearchCacheStats().getHitCount());
+    }
+
+    @Test
+    void testSearchCacheInvalidatedByUpdate() {
+        appointmentService.enableSearchCache(16, 0);
+        assertEquals(1, appointmentService.searchAppointments("doctor").size());
+        assertTrue(appointmentService.searchAppointments("dentist").isEmpty());
+
+        appointmentService.updateAppointment("A1", "Dentist Checkup");
+        assertTrue(appointmentService.searchAppointments("doctor").isEmpty());
+        assertEquals(1, appointmentService.searchAppointments("dentist").size());
+        assertEquals(0, appointmentService.getSearchCacheStats().getHitCount());
+    }
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    // Fixed once per test so back-to-back ranges line up exactly
+    private final long bookingBase = System.currentTimeMillis() + 10 * 24 * HOUR;
+
+    private Date hoursFromNow(int hours) {
+        return new Date(bookingBase + hours * HOUR);
+    }
+
+    @Test
+    void testFindConflictsWithOverlappingBookings() {
+        appointmentService.addAppointment(new Appointment("B1", hoursFromNow(0), "Dentist", 2 * HOUR));
+        appointmentService.addAppointment(new Appointment("B2", hoursFromNow(3), "Lunch", HOUR));
+
+        List<Appointment> conflicts = appointmentService.findConflicts(
+            new Appointment("B3", hoursFromNow(1), "Call", 3 * HOUR));
+        assertEquals(2, conflicts.size());
+        assertEquals("B1", conflicts.get(0).getAppointmentId());
+        assertEquals("B2", conflicts.get(1).getAppointmentId());
+
+        // Back to back is not a conflict
+        assertTrue(appointmentService.findConflicts(
+            new Appointment("B4", hoursFromNow(2), "Gym", HOUR)).isEmpty());
+    }
+
+    @Test
+    void testBookAppointmentRejectsConflict() {
+        appointmentService.bookAppointment(new Appointment("B1", hoursFromNow(0), "Dentist", 2 * HOUR));
+        assertThrows(IllegalArgumentException.class, () ->
+            appointmentService.bookAppointment(new Appointment("B2", hoursFromNow(1), "Lunch", HOUR)));
+        assertNull(appointmentService.getAppointment("B2"));
+
+        appointmentService.deleteAppointment("B1");
+        appointmentService.bookAppointment(new Appointment("B2", hoursFromNow(1), "Lunch", HOUR));
+        assertNotNull(appointmentService.getAppointment("B2"));
+    }
+
+    @Test
+    void testZeroDurationAppointmentsAtSameInstantConflict() {
+        appointmentService.bookAppointment(new Appointment("B1", hoursFromNow(0), "Dentist"));
+        assertThrows(IllegalArgumentException.class, () ->
+            appointmentService.bookAppointment(new Appointment("B2", hoursFromNow(0), "Lunch")));
+        assertThrows(IllegalArgumentException.class, () ->
+            appointmentService.bookAppointment(new Appointment("B3", hoursFromNow(0), "Call", HOUR)));
+
+        // An instant at the end of a range is free
+        appointmentService.bookAppointment(new Appointment("B4", hoursFromNow(-1), "Gym", HOUR));
+        appointmentService.addAppointment(new Appointment("B5", hoursFromNow(0), "Lunch"));
+        // A2 and A3 from setUp share an instant too
+        List<AppointmentConflict> conflicts = appointmentService.findAllConflicts();
+        assertEquals(2, conflicts.size());
+        assertEquals("A2", conflicts.get(0).getFirst().getAppointmentId());
+        assertEquals("A3", conflicts.get(0).getSecond().getAppointmentId());
+        assertEquals("B1", conflicts.get(1).getFirst().getAppointmentId());
+        assertEquals("B5", conflicts.get(1).getSecond().getAppointmentId());
+    }
+
+    @Test
+    void testFindAllConflictsReportsEveryPair() {
+        appointmentService.addAppointment(new Appointment("B1", hoursFromNow(0), "Dentist", 4 * HOUR));
+        appointmentService.addAppointment(new Appointment("B2", hoursFromNow(1), "Lunch", HOUR));
+        appointmentService.addAppointment(new Appointment("B3", hoursFromNow(3), "Call", 2 * HOUR));
+        appointmentService.addAppointment(new Appointment("B4", hoursFromNow(5), "Gym", HOUR));
+
+        // A2 and A3 from setUp share an instant, so they conflict as well
+        List<AppointmentConflict> conflicts = appointmentService.findAllConflicts();
+        assertEquals(3, conflicts.size());
+        assertEquals("A2", conflicts.get(0).getFirst().getAppointmentId());
+        assertEquals("A3", conflicts.get(0).getSecond().getAppointmentId());
+        assertEquals("B1", conflicts.get(1).getFirst().getAppointmentId());
+        assertEquals("B2", conflicts.get(1).getSecond().getAppointmentId());
+        assertEquals("B1", conflicts.get(2).getFirst().getAppointmentId());
+        assertEquals("B3", conflicts.get(2).getSecond().getAppointmentId());
+    }
+
+    @Test
+    void testExpiryRetiresPastAppointments() {
+        List<Appointment> archived = new ArrayList<>();
+        AppointmentExpiry expiry = new AppointmentExpiry(60_000).onExpired(archived::add);
+        appointmentService.enableExpiry(expiry);
+
+        long a1 = appointmentService.getAppointment("A1").getAppointmentTime();
+        expiry.advance(a1 + 60 * 60 * 1000L);
+
+        assertEquals(1, archived.size());
+        assertEquals("A1", archived.get(0).getAppointmentId());
+        assertNull(appointmentService.getAppointment("A1"));
+        assertTrue(appointmentService.searchAppointments("doctor").isEmpty());
+        assertEquals(2, expiry.pendingCount());
+    }
+
+    @Test
+    void testExpiryFiresRemindersAtLeadTime() {
+        List<String> reminded = new ArrayList<>();
+        AppointmentExpiry expiry = new AppointmentExpiry(60_000)
+            .onReminder(60 * 60 * 1000L, appointment -> reminded.add(appointment.getAppointmentId()));
+        appointmentService.enableExpiry(expiry);
+
+        long a1 = appointmentService.getAppointment("A1").getAppointmentTime();
+        expiry.advance(a1 - 30 * 60 * 1000L);
+
+        assertEquals(1, reminded.size());
+        assertEquals("A1", reminded.get(0));
+        assertNotNull(appointmentService.getAppointment("A1"));
+    }
+
+    @Test
+    void testExpiryIgnoresDeletedAppointments() {
+        List<Appointment> archived = new ArrayList<>();
+        AppointmentExpiry expiry = new AppointmentExpiry(60_000).onExpired(archived::add);
+        appointmentService.enableExpiry(expiry);
+        long a1 = appointmentService.getAppointment("A1").getAppointmentTime();
+
+        appointmentService.deleteAppointment("A1");
+        expiry.advance(a1 + 60 * 60 * 1000L);
+
+        assertTrue(archived.isEmpty());
+        assertEquals(2, expiry.pendingCount());
+    }
+
+    @Test
+    void testAppointmentDateAccessorReturnsCopy() {
+        Appointment appointment = appointmentService.getAppointment("A1");
+        long time = appointment.getAppointmentTime();
+        appointment.getAppointmentDate().setTime(0);
+
+        assertEquals(time, appointment.getAppointmentTime());
+        assertEquals(time, appointment.getAppointmentDate().getTime());
+        assertEquals("A1", appointmentService.getNextAppointments(time, 1).get(0).getAppointmentId());
+    }
+
+    @Test
+    void testInjectedClockDrivesValidationAndUpcoming() {
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(1_000_000L), ZoneOffset.UTC);
+        AppointmentService service = new AppointmentService(clock);
+        service.addAppointment(new Appointment("C1", 1_000_000L, "Now", 0, clock));
+        service.addAppointment(new Appointment("C2", 2_000_000L, "Later", 0, clock));
+        assertThrows(IllegalArgumentException.class, () -> new Appointment("C3", 999_999L, "Past", 0, clock));
+
+        List<Appointment> upcoming = service.getUpcomingAppointments(5);
+        assertEquals(2, upcoming.size());
+        assertEquals("C1", upcoming.get(0).getAppointmentId());
+    }
 }
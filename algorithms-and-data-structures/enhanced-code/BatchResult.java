@@ -0,0 +1,54 @@
+package main;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-item report for a batch operation. Batches are all-or-nothing:
+ * if any item fails validation nothing is applied, and the report says
+ * which items were at fault instead of throwing on the first one.
+ */
+public class BatchResult {
+
+    public enum Status {
+        OK,
+        INVALID,            // null item or id
+        DUPLICATE_IN_BATCH, // the same id appears earlier in the batch
+        ALREADY_EXISTS,     // add of an id that is already stored
+        NOT_FOUND           // delete of an id that is not stored
+    }
+
+    private final List<Status> statuses;
+    private final int failureCount;
+
+    BatchResult(Status[] statuses) {
+        this.statuses = Collections.unmodifiableList(Arrays.asList(statuses));
+        int failures = 0;
+        for (Status status : statuses) {
+            if (status != Status.OK) {
+                failures++;
+            }
+        }
+        this.failureCount = failures;
+    }
+
+    // True when every item passed validation and the whole batch was applied
+    public boolean isApplied() {
+        return failureCount == 0;
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    // Status of the item at the given position in the submitted batch
+    public Status getStatus(int index) {
+        return statuses.get(index);
+    }
+
+    // Statuses in the same order as the submitted batch
+    public List<Status> getStatuses() {
+        return statuses;
+    }
+}
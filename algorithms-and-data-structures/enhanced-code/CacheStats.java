@@ -0,0 +1,56 @@
+package main;
+
+/**
+ * Point-in-time counters for a service's search result cache.
+ */
+public class CacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long expirationCount;
+    private final long invalidationCount;
+    private final int size;
+
+    CacheStats(long hitCount, long missCount, long evictionCount, long expirationCount,
+               long invalidationCount, int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+        this.invalidationCount = invalidationCount;
+        this.size = size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    // Entries dropped because the cache was full
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    // Entries dropped because they outlived the time to live
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    // Entries dropped because a write changed what they would return
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0.0 : (double) hitCount / requests;
+    }
+}
@@ -0,0 +1,50 @@
+package main;
+
+/**
+ * One add, update or delete published to a ChangeFeed. Sequence numbers start
+ * at 1 and increase by one per event in the order the feed received them.
+ */
+public class ChangeEvent<T> {
+
+    public enum Type {
+        ADD,
+        UPDATE,
+        DELETE
+    }
+
+    private final long sequence;
+    private final String source;
+    private final Type type;
+    private final String id;
+    private final T value;
+
+    ChangeEvent(long sequence, String source, Type type, String id, T value) {
+        this.sequence = sequence;
+        this.source = source;
+        this.type = type;
+        this.id = id;
+        this.value = value;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    // Name of the publishing service, e.g. "TaskService"
+    public String getSource() {
+        return source;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    // The item as of this change; null for deletes
+    public T getValue() {
+        return value;
+    }
+}
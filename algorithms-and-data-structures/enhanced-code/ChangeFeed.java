@@ -0,0 +1,179 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * In-process change data capture: an ordered, sequence-numbered stream of the
+ * adds, updates and deletes made through the services it is enabled on.
+ *
+ * Events live in a fixed-size ring. A writer claims a sequence with one atomic
+ * increment and stores its event with one compare-and-set, so publishing never
+ * locks and never waits for subscribers. Each subscription keeps its own cursor
+ * and reads in batches. A subscriber that falls a full ring behind has lost
+ * events; its next poll fails so it can resync from the service, then carries
+ * on from the oldest event still held.
+ */
+public class ChangeFeed<T> {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final AtomicReferenceArray<ChangeEvent<T>> ring;
+    private final int mask;
+    private final AtomicLong lastSequence = new AtomicLong();
+
+    public ChangeFeed() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Capacity is the number of events kept for slow subscribers; a power of two
+    public ChangeFeed(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Invalid capacity");
+        }
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    void publish(String source, ChangeEvent.Type type, String id, T value) {
+        long sequence = lastSequence.incrementAndGet();
+        ChangeEvent<T> event = new ChangeEvent<>(sequence, source, type, id, value);
+        int index = (int) (sequence & mask);
+        ChangeEvent<T> existing;
+        do {
+            existing = ring.get(index);
+            if (existing != null && existing.getSequence() > sequence) {
+                // A writer a whole ring ahead already reused the slot; this event is gone
+                return;
+            }
+        } while (!ring.compareAndSet(index, existing, event));
+    }
+
+    // Sequence of the most recently claimed event, 0 before the first
+    public long getLastSequence() {
+        return lastSequence.get();
+    }
+
+    // A subscription that starts with the next event published
+    public Subscription subscribe() {
+        return new Subscription(lastSequence.get() + 1);
+    }
+
+    // A subscription that replays from the given sequence, if the ring still holds it
+    public Subscription subscribeFrom(long sequence) {
+        if (sequence < 1 || sequence < oldestRetained()) {
+            throw new IllegalArgumentException("Sequence is no longer retained");
+        }
+        return new Subscription(sequence);
+    }
+
+    // A subscription whose batches of up to maxBatch events are handed to handler on a daemon thread
+    public Subscription subscribe(int maxBatch, Consumer<List<ChangeEvent<T>>> handler) {
+        Subscription subscription = subscribe();
+        Thread thread = new Thread(() -> subscription.run(maxBatch, handler), "change-feed-subscriber");
+        thread.setDaemon(true);
+        thread.start();
+        return subscription;
+    }
+
+    private long oldestRetained() {
+        return Math.max(1, lastSequence.get() - mask);
+    }
+
+    public class Subscription implements AutoCloseable {
+        private volatile long cursor;
+        private volatile boolean closed;
+        private volatile RuntimeException failure;
+
+        Subscription(long cursor) {
+            this.cursor = cursor;
+        }
+
+        // Sequence of the next event this subscription will return
+        public long getCursor() {
+            return cursor;
+        }
+
+        // Up to maxBatch published events in sequence order, without waiting; empty when caught up
+        public List<ChangeEvent<T>> poll(int maxBatch) {
+            if (maxBatch < 1) {
+                throw new IllegalArgumentException("Invalid batch size");
+            }
+            List<ChangeEvent<T>> batch = null;
+            long next = cursor;
+            while (batch == null || batch.size() < maxBatch) {
+                ChangeEvent<T> event = ring.get((int) (next & mask));
+                if (event == null || event.getSequence() < next) {
+                    break; // not published yet
+                }
+                if (event.getSequence() > next) {
+                    cursor = oldestRetained();
+                    throw new IllegalStateException("Subscriber fell behind the change feed");
+                }
+                if (batch == null) {
+                    batch = new ArrayList<>(Math.min(maxBatch, 64));
+                }
+                batch.add(event);
+                next++;
+            }
+            cursor = next;
+            return batch == null ? Collections.emptyList() : batch;
+        }
+
+        // As poll(maxBatch), but waits up to the timeout for at least one event
+        public List<ChangeEvent<T>> poll(int maxBatch, long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            long backoff = 1_000;
+            while (true) {
+                List<ChangeEvent<T>> batch = poll(maxBatch);
+                long remaining = deadline - System.nanoTime();
+                if (!batch.isEmpty() || remaining <= 0 || closed) {
+                    return batch;
+                }
+                // Writers never signal, so back off from a spin towards a 1ms sleep
+                LockSupport.parkNanos(Math.min(backoff, remaining));
+                backoff = Math.min(backoff * 2, 1_000_000);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        // Why an asynchronous subscription stopped on its own, or null
+        public RuntimeException getFailure() {
+            return failure;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        private void run(int maxBatch, Consumer<List<ChangeEvent<T>>> handler) {
+            try {
+                while (!closed) {
+                    List<ChangeEvent<T>> batch = poll(maxBatch, 100, TimeUnit.MILLISECONDS);
+                    if (!batch.isEmpty()) {
+                        handler.accept(batch);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                failure = e;
+            } finally {
+                closed = true;
+            }
+        }
+    }
+}
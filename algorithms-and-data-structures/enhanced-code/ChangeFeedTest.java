@@ -0,0 +1,182 @@
+package test;
+
+import main.Appointment;
+import main.AppointmentService;
+import main.ChangeEvent;
+import main.ChangeFeed;
+import main.Contact;
+import main.ContactService;
+import main.Task;
+import main.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeFeedTest {
+
+    private ChangeFeed<Object> feed;
+    private TaskService taskService;
+
+    @BeforeEach
+    void setUp() {
+        feed = new ChangeFeed<>(16);
+        taskService = new TaskService();
+        taskService.enableChangeFeed(feed);
+    }
+
+    @Test
+    void testTaskChangesArriveInOrder() {
+        ChangeFeed<Object>.Subscription subscription = feed.subscribe();
+        taskService.addTask(new Task("1", "Write Report", "Complete project report by Monday"));
+        taskService.updateTask("1", "Write Summary", "Summarize the project");
+        taskService.deleteTask("1");
+
+        List<ChangeEvent<Object>> events = subscription.poll(10);
+        assertEquals(3, events.size());
+        assertEquals(ChangeEvent.Type.ADD, events.get(0).getType());
+        assertEquals("Write Report", ((Task) events.get(0).getValue()).getName());
+        assertEquals(ChangeEvent.Type.UPDATE, events.get(1).getType());
+        assertEquals("Write Summary", ((Task) events.get(1).getValue()).getName());
+        assertEquals(ChangeEvent.Type.DELETE, events.get(2).getType());
+        assertNull(events.get(2).getValue());
+        assertEquals(1, events.get(0).getSequence());
+        assertEquals(3, events.get(2).getSequence());
+        assertTrue(subscription.poll(10).isEmpty());
+    }
+
+    @Test
+    void testSubscribersKeepTheirOwnCursorsAndBatch() {
+        taskService.addAll(Arrays.asList(
+            new Task("1", "One", "First"), new Task("2", "Two", "Second"), new Task("3", "Three", "Third")));
+        ChangeFeed<Object>.Subscription slow = feed.subscribeFrom(1);
+        ChangeFeed<Object>.Subscription fast = feed.subscribeFrom(1);
+
+        assertEquals(3, fast.poll(10).size());
+        assertEquals(2, slow.poll(2).size());
+        assertEquals("3", slow.poll(2).get(0).getId());
+        assertEquals(4, slow.getCursor());
+    }
+
+    @Test
+    void testOverrunIsReportedThenSkipped() {
+        ChangeFeed<Object>.Subscription subscription = feed.subscribe();
+        for (int i = 0; i < 20; i++) {
+            taskService.addTask(new Task("T" + i, "Task " + i, "Filler"));
+        }
+        assertThrows(IllegalStateException.class, () -> subscription.poll(100));
+        List<ChangeEvent<Object>> events = subscription.poll(100);
+        assertEquals(16, events.size());
+        assertEquals(20, events.get(15).getSequence());
+        assertThrows(IllegalArgumentException.class, () -> feed.subscribeFrom(1));
+    }
+
+    @Test
+    void testServicesShareOneFeed() {
+        ContactService contactService = new ContactService();
+        contactService.enableChangeFeed(feed);
+        AppointmentService appointmentService = new AppointmentService();
+        appointmentService.enableChangeFeed(feed);
+        ChangeFeed<Object>.Subscription subscription = feed.subscribe();
+
+        contactService.addContact(new Contact("C1", "Ada", "Lovelace", "5551234567", "12 Main St"));
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.DATE, 1);
+        appointmentService.addAppointment(new Appointment("A1", cal.getTime(), "Doctor appointment"));
+        contactService.updateContact("C1", "Ada", "King", "5551234567", "12 Main St");
+
+        List<ChangeEvent<Object>> events = subscription.poll(10);
+        assertEquals(3, events.size());
+        assertEquals("ContactService", events.get(0).getSource());
+        assertEquals("AppointmentService", events.get(1).getSource());
+        assertEquals(ChangeEvent.Type.UPDATE, events.get(2).getType());
+        assertEquals("King", ((Contact) events.get(2).getValue()).getLastName());
+    }
+
+    @Test
+    void testPublishedValuesDoNotChangeAfterPublishing() {
+        ContactService contactService = new ContactService();
+        contactService.enableChangeFeed(feed);
+        AppointmentService appointmentService = new AppointmentService();
+        appointmentService.enableChangeFeed(feed);
+        ChangeFeed<Object>.Subscription subscription = feed.subscribe();
+
+        Contact contact = new Contact("C1", "Ada", "Lovelace", "5551234567", "12 Main St");
+        contactService.addContact(contact);
+        contactService.deleteContact("C1");
+        contact.setLastName("King");
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.DATE, 1);
+        appointmentService.addAppointment(new Appointment("A1", cal.getTime(), "Doctor appointment"));
+        appointmentService.updateAppointment("A1", "Dentist");
+
+        List<ChangeEvent<Object>> events = subscription.poll(10);
+        assertEquals(4, events.size());
+        Contact added = (Contact) events.get(0).getValue();
+        assertEquals("Lovelace", added.getLastName());
+        assertThrows(IllegalStateException.class, () -> added.setLastName("King"));
+        assertEquals("Doctor appointment", ((Appointment) events.get(2).getValue()).getDescription());
+        assertEquals("Dentist", ((Appointment) events.get(3).getValue()).getDescription());
+        Appointment updated = (Appointment) events.get(3).getValue();
+        assertThrows(IllegalStateException.class, () -> updated.setDescription("Doctor"));
+    }
+
+    @Test
+    void testConcurrentWritersGetUniqueSequences() throws InterruptedException {
+        ChangeFeed<Contact> contactFeed = new ChangeFeed<>(1 << 12);
+        ContactService contactService = new ContactService();
+        contactService.enableChangeFeed(contactFeed);
+        ChangeFeed<Contact>.Subscription subscription = contactFeed.subscribe();
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int base = t * 500;
+            writers.add(new Thread(() -> {
+                for (int i = base; i < base + 500; i++) {
+                    contactService.addContact(new Contact("C" + i, "First", "Last", "5551234567", "Address"));
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        List<ChangeEvent<Contact>> events = subscription.poll(5000);
+        assertEquals(2000, events.size());
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i + 1, events.get(i).getSequence());
+            ids.add(events.get(i).getId());
+        }
+        assertEquals(2000, ids.size());
+    }
+
+    @Test
+    void testAsyncSubscriberReceivesBatches() throws InterruptedException {
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(5);
+        ChangeFeed<Object>.Subscription subscription = feed.subscribe(4, batch -> {
+            for (ChangeEvent<Object> event : batch) {
+                received.add(event.getId());
+                done.countDown();
+            }
+        });
+        try {
+            for (int i = 0; i < 5; i++) {
+                taskService.addTask(new Task("T" + i, "Task " + i, "Filler"));
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList("T0", "T1", "T2", "T3", "T4"), received);
+        } finally {
+            subscription.close();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package main;
+
+import java.util.Objects;
+
+public class Contact {
+    private final String contactId;
+    private String firstName;
+    private String lastName;
+    private long phone; // ten digits stored as a number; leading zeros are restored by getPhone
+    private String address;
+
+    // Number of ContactService instances holding this contact; their phone and name indexes are
+    // keyed on the current fields, so while held it changes only through updateContact
+    private volatile int owners;
+
+    // Versions published on a change feed are shared with subscribers and never change
+    private final boolean readOnly;
+
+    // Constructor to initialize contact fields
+    public Contact(String contactId, String firstName, String lastName, String phone, String address) {
+        // Validate and assign the contactId (not null, not more than 10 characters)
+        if (contactId == null || contactId.length() > 10) {
+            throw new IllegalArgumentException("Invalid contact ID");
+        }
+        this.contactId = contactId;
+        this.readOnly = false;
+
+        // Validate and assign firstName (not null, not more than 10 characters)
+        setFirstName(firstName);
+
+        // Validate and assign lastName (not null, not more than 10 characters)
+        setLastName(lastName);
+
+        // Validate and assign phone (not null, must be exactly 10 digits)
+        setPhone(phone);
+
+        // Validate and assign address (not null, not more than 30 characters)
+        setAddress(address);
+    }
+
+    // Copy used for readOnlyVersion; the source was validated when it was built
+    private Contact(Contact source) {
+        this.contactId = source.contactId;
+        this.firstName = source.firstName;
+        this.lastName = source.lastName;
+        this.phone = source.phone;
+        this.address = source.address;
+        this.readOnly = true;
+    }
+
+    // An immutable copy of this contact as it is now
+    Contact readOnlyVersion() {
+        return new Contact(this);
+    }
+
+    // Getters
+    public String getContactId() {
+        return contactId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getPhone() {
+        return formatPhone(phone);
+    }
+
+    // Phone as a primitive, for indexes and compact storage
+    public long getPhoneNumber() {
+        return phone;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    // Setters with validation
+    public void setFirstName(String firstName) {
+        checkWritable();
+        if (firstName == null || firstName.length() > 10) {
+            throw new IllegalArgumentException("Invalid first name");
+        }
+        this.firstName = firstName;
+    }
+
+    public void setLastName(String lastName) {
+        checkWritable();
+        if (lastName == null || lastName.length() > 10) {
+            throw new IllegalArgumentException("Invalid last name");
+        }
+        this.lastName = lastName;
+    }
+
+    public void setPhone(String phone) {
+        checkWritable();
+        this.phone = parsePhone(phone);
+    }
+
+    public void setAddress(String address) {
+        checkWritable();
+        if (address == null || address.length() > 30) {
+            throw new IllegalArgumentException("Invalid address");
+        }
+        this.address = address;
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new IllegalStateException("Contact version is read-only");
+        }
+        if (owners > 0) {
+            throw new IllegalStateException("Contact is held by a ContactService; use updateContact");
+        }
+    }
+
+    // Called by ContactService when it starts or stops holding this contact
+    synchronized void claim() {
+        owners++;
+    }
+
+    synchronized void release() {
+        owners--;
+    }
+
+    // Validates a ten-digit phone and packs it into a long without a regex or any allocation
+    public static long parsePhone(String phone) {
+        if (phone == null || phone.length() != 10) {
+            throw new IllegalArgumentException("Invalid phone number");
+        }
+        long value = 0;
+        for (int i = 0; i < 10; i++) {
+            char c = phone.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Invalid phone number");
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // Restores the ten-digit form, including leading zeros
+    public static String formatPhone(long phone) {
+        char[] digits = new char[10];
+        for (int i = 9; i >= 0; i--) {
+            digits[i] = (char) ('0' + phone % 10);
+            phone /= 10;
+        }
+        return new String(digits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Contact)) return false;
+        Contact contact = (Contact) o;
+        return contactId.equals(contact.contactId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(contactId);
+    }
+}
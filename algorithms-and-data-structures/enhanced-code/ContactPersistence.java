@@ -0,0 +1,346 @@
+package main;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Durable storage for ContactService: a write-ahead journal plus periodic
+ * binary snapshots, kept in one directory as snapshot-N.bin and journal-N.log.
+ *
+ * Snapshot N holds the store as of the moment journal N was started (plus,
+ * possibly, some later changes), so recovery loads the newest intact
+ * snapshot and replays journal N onward. Journal records carry the full new
+ * state of a contact, so replaying a change the snapshot already holds is
+ * harmless.
+ */
+class ContactPersistence implements AutoCloseable {
+    private static final byte OP_ADD = 1;
+    private static final byte OP_UPDATE = 2;
+    private static final byte OP_DELETE = 3;
+
+    private static final int SNAPSHOT_MAGIC = 0x43534E50; // "CSNP"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final Path directory;
+    private final Map<String, Contact> contacts;
+    private final long snapshotEveryRecords;
+
+    // Writers share the read lock; rotating to a new journal takes the write lock
+    private final ReentrantReadWriteLock rotation = new ReentrantReadWriteLock();
+    private volatile Journal journal;
+    private long generation;
+
+    private final Object snapshotLock = new Object();
+    private final AtomicLong recordsSinceSnapshot = new AtomicLong();
+    private final AtomicBoolean snapshotScheduled = new AtomicBoolean();
+    // Failure of the last automatic snapshot, reported by the next snapshot() or close()
+    private volatile IOException backgroundFailure;
+    private final ExecutorService snapshotter = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "contact-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ContactPersistence(Path directory, Map<String, Contact> contacts, long snapshotEveryRecords) {
+        this.directory = directory;
+        this.contacts = contacts;
+        this.snapshotEveryRecords = snapshotEveryRecords;
+    }
+
+    /**
+     * Recovers the store in directory into contacts (which should be empty)
+     * and opens the journal for new writes.
+     */
+    static ContactPersistence open(Path directory, Map<String, Contact> contacts, long snapshotEveryRecords)
+            throws IOException {
+        if (snapshotEveryRecords < 1) {
+            throw new IllegalArgumentException("Invalid snapshot interval");
+        }
+        Files.createDirectories(directory);
+        ContactPersistence persistence = new ContactPersistence(directory, contacts, snapshotEveryRecords);
+        persistence.recover();
+        return persistence;
+    }
+
+    private void recover() throws IOException {
+        long snapshotGeneration = 0;
+        for (long candidate : generations("snapshot-", ".bin").descendingSet()) {
+            try {
+                readSnapshot(snapshotFile(candidate));
+                snapshotGeneration = candidate;
+                break;
+            } catch (IOException e) {
+                // Corrupt or torn snapshot: fall back to the one before it
+                contacts.clear();
+            }
+        }
+        generation = snapshotGeneration;
+        for (long journalGeneration : generations("journal-", ".log").tailSet(snapshotGeneration, true)) {
+            List<byte[]> records = new ArrayList<>();
+            Journal replayed = Journal.open(journalFile(journalGeneration), records);
+            for (byte[] record : records) {
+                apply(record);
+            }
+            recordsSinceSnapshot.addAndGet(records.size());
+            if (journalGeneration > generation) {
+                generation = journalGeneration;
+            }
+            replayed.close();
+        }
+        journal = Journal.open(journalFile(generation), new ArrayList<>());
+    }
+
+    // -------------------- Write path used by ContactService --------------------
+
+    // Start a mutation; the returned journal must be passed back to endWrite
+    Journal beginWrite() {
+        rotation.readLock().lock();
+        return journal;
+    }
+
+    // Finish a mutation: release the rotation lock, then wait for the record to be durable
+    void endWrite(Journal writtenTo, long position) {
+        rotation.readLock().unlock();
+        if (position > 0) {
+            writtenTo.sync(position);
+            if (recordsSinceSnapshot.incrementAndGet() >= snapshotEveryRecords
+                    && snapshotScheduled.compareAndSet(false, true)) {
+                snapshotter.execute(this::backgroundSnapshot);
+            }
+        }
+    }
+
+    static long logAdd(Journal journal, Contact contact) {
+        return append(journal, encode(OP_ADD, contact));
+    }
+
+    static long logUpdate(Journal journal, Contact contact) {
+        return append(journal, encode(OP_UPDATE, contact));
+    }
+
+    static long logDelete(Journal journal, String contactId) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(OP_DELETE);
+            out.writeUTF(contactId);
+            return append(journal, bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long append(Journal journal, byte[] record) {
+        try {
+            return journal.append(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write contact journal", e);
+        }
+    }
+
+    private static byte[] encode(byte op, Contact contact) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(op);
+            writeContact(out, contact);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Replays one journal record onto the in-memory map
+    private void apply(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        byte op = in.readByte();
+        if (op == OP_DELETE) {
+            contacts.remove(in.readUTF());
+        } else if (op == OP_ADD || op == OP_UPDATE) {
+            Contact contact = readContact(in);
+            contacts.put(contact.getContactId(), contact);
+        } else {
+            throw new IOException("Unknown journal operation " + op);
+        }
+    }
+
+    // -------------------- Snapshots --------------------
+
+    /**
+     * Writes a snapshot of the current store and drops the journal and
+     * snapshot files it makes obsolete. Writers are only paused while the
+     * journal is switched, not while the snapshot is written.
+     */
+    void snapshot() throws IOException {
+        reportBackgroundFailure();
+        takeSnapshot();
+    }
+
+    private void takeSnapshot() throws IOException {
+        synchronized (snapshotLock) {
+            long snapshotGeneration;
+            rotation.writeLock().lock();
+            try {
+                snapshotGeneration = generation + 1;
+                Journal previous = journal;
+                journal = Journal.open(journalFile(snapshotGeneration), new ArrayList<>());
+                generation = snapshotGeneration;
+                previous.close();
+                recordsSinceSnapshot.set(0);
+            } finally {
+                rotation.writeLock().unlock();
+            }
+            // Every change logged before the switch is already applied to the map
+            writeSnapshot(snapshotGeneration);
+            for (long old : generations("snapshot-", ".bin").headSet(snapshotGeneration)) {
+                Files.deleteIfExists(snapshotFile(old));
+            }
+            for (long old : generations("journal-", ".log").headSet(snapshotGeneration)) {
+                Files.deleteIfExists(journalFile(old));
+            }
+        }
+    }
+
+    private void backgroundSnapshot() {
+        try {
+            takeSnapshot();
+        } catch (IOException e) {
+            backgroundFailure = e;
+        } finally {
+            snapshotScheduled.set(false);
+        }
+    }
+
+    private void reportBackgroundFailure() throws IOException {
+        IOException failure = backgroundFailure;
+        if (failure != null) {
+            backgroundFailure = null;
+            throw new IOException("Automatic contact snapshot failed", failure);
+        }
+    }
+
+    private void writeSnapshot(long snapshotGeneration) throws IOException {
+        Path target = snapshotFile(snapshotGeneration);
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            for (Contact contact : contacts.values()) {
+                out.writeBoolean(true);
+                writeContact(out, contact);
+            }
+            out.writeBoolean(false);
+            out.flush();
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            file.getChannel().force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void readSnapshot(Path file) throws IOException {
+        try (InputStream raw = Files.newInputStream(file)) {
+            CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(raw, 1 << 16), new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Not a contact snapshot: " + file);
+            }
+            while (in.readBoolean()) {
+                Contact contact = readContact(in);
+                contacts.put(contact.getContactId(), contact);
+            }
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Corrupt contact snapshot: " + file);
+            }
+        } catch (EOFException | IllegalArgumentException e) {
+            throw new IOException("Truncated contact snapshot: " + file, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        snapshotter.shutdown();
+        try {
+            // A snapshot in progress still needs the journal it is rotating
+            snapshotter.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for contact snapshot");
+        }
+        rotation.writeLock().lock();
+        try {
+            journal.close();
+        } finally {
+            rotation.writeLock().unlock();
+        }
+        reportBackgroundFailure();
+    }
+
+    // -------------------- Encoding and file layout --------------------
+
+    private static void writeContact(DataOutputStream out, Contact contact) throws IOException {
+        out.writeUTF(contact.getContactId());
+        out.writeUTF(contact.getFirstName());
+        out.writeUTF(contact.getLastName());
+        out.writeUTF(contact.getPhone());
+        out.writeUTF(contact.getAddress());
+    }
+
+    private static Contact readContact(DataInputStream in) throws IOException {
+        return new Contact(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF());
+    }
+
+    private Path snapshotFile(long snapshotGeneration) {
+        return directory.resolve("snapshot-" + snapshotGeneration + ".bin");
+    }
+
+    private Path journalFile(long journalGeneration) {
+        return directory.resolve("journal-" + journalGeneration + ".log");
+    }
+
+    // Generation numbers of the files named prefix + N + suffix, in ascending order
+    private TreeSet<Long> generations(String prefix, String suffix) throws IOException {
+        TreeSet<Long> found = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    found.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        return found;
+    }
+}
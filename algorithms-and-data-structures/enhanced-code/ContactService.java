@@ -1,42 +1,223 @@
 package main;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class ContactService {
+public class ContactService implements AutoCloseable {
 
-    private final Map<String, Contact> contactMap = new HashMap<>();
+    // Default number of journaled changes between automatic snapshots
+    public static final long DEFAULT_SNAPSHOT_EVERY = 1_000_000;
 
-    // Method to add a new contact
+    // Concurrent map so request handlers on many threads can share one service without a global lock
+    private final Map<String, Contact> contactMap = new ConcurrentHashMap<>();
+
+    // Reverse phone -> contact id index for caller-ID lookups, kept in step inside the map's compute calls
+    private final PhoneIndex phoneIndex = new PhoneIndex();
+
+    // Sorted first/last name index for type-ahead search, maintained alongside the phone index
+    private final NamePrefixIndex nameIndex = new NamePrefixIndex();
+
+    // Receives every add, update and delete when enabled; published inside compute so events follow per-contact order
+    private volatile ChangeFeed<? super Contact> changeFeed;
+
+    // Journal and snapshots for the persistent mode; null when the service is in-memory only
+    private final ContactPersistence persistence;
+
+    // In-memory service; contents are lost on restart
+    public ContactService() {
+        this.persistence = null;
+    }
+
+    // Persistent service: recovers from the snapshot and journal in directory, then journals every change
+    public ContactService(Path directory) throws IOException {
+        this(directory, DEFAULT_SNAPSHOT_EVERY);
+    }
+
+    public ContactService(Path directory, long snapshotEveryRecords) throws IOException {
+        this.persistence = ContactPersistence.open(directory, contactMap, snapshotEveryRecords);
+        for (Contact contact : contactMap.values()) {
+            indexContact(contact);
+        }
+    }
+
+    // Method to add a new contact (atomic insert-if-absent)
     public void addContact(Contact contact) {
-        if (contactMap.containsKey(contact.getContactId())) {
+        boolean[] added = new boolean[1];
+        long[] logged = new long[1];
+        Journal journal = beginWrite();
+        try {
+            // The journal is written inside compute so per-contact journal order matches map order
+            contactMap.compute(contact.getContactId(), (id, existing) -> {
+                if (existing != null) {
+                    return existing;
+                }
+                added[0] = true;
+                logged[0] = journal == null ? 0 : ContactPersistence.logAdd(journal, contact);
+                indexContact(contact);
+                publishChange(ChangeEvent.Type.ADD, id, contact);
+                return contact;
+            });
+        } finally {
+            endWrite(journal, logged[0]);
+        }
+        if (!added[0]) {
             throw new IllegalArgumentException("Contact ID already exists");
         }
-        contactMap.put(contact.getContactId(), contact);
     }
 
-    // Method to delete a contact by contactId
+    // Method to delete a contact by contactId (atomic remove-if-present)
     public void deleteContact(String contactId) {
-        if (!contactMap.containsKey(contactId)) {
+        if (contactId == null) {
+            throw new IllegalArgumentException("Contact ID not found");
+        }
+        boolean[] removed = new boolean[1];
+        long[] logged = new long[1];
+        Journal journal = beginWrite();
+        try {
+            contactMap.computeIfPresent(contactId, (id, existing) -> {
+                removed[0] = true;
+                logged[0] = journal == null ? 0 : ContactPersistence.logDelete(journal, id);
+                unindexContact(existing);
+                publishChange(ChangeEvent.Type.DELETE, id, null);
+                return null;
+            });
+        } finally {
+            endWrite(journal, logged[0]);
+        }
+        if (!removed[0]) {
             throw new IllegalArgumentException("Contact ID not found");
         }
-        contactMap.remove(contactId);
     }
 
     // Method to update contact fields by contactId
+    // The new values are validated into a fresh Contact and swapped in as one step,
+    // so readers see either the old contact or the fully updated one, never a mix
     public void updateContact(String contactId, String newFirstName, String newLastName, String newPhone, String newAddress) {
-        Contact contact = contactMap.get(contactId);
-        if (contact == null) {
+        if (contactId == null) {
+            throw new IllegalArgumentException("Contact ID not found");
+        }
+        long[] logged = new long[1];
+        Contact updated;
+        Journal journal = beginWrite();
+        try {
+            updated = contactMap.computeIfPresent(contactId, (id, current) -> {
+                Contact replacement = new Contact(id, newFirstName, newLastName, newPhone, newAddress);
+                logged[0] = journal == null ? 0 : ContactPersistence.logUpdate(journal, replacement);
+                unindexContact(current);
+                indexContact(replacement);
+                publishChange(ChangeEvent.Type.UPDATE, id, replacement);
+                return replacement;
+            });
+        } finally {
+            endWrite(journal, logged[0]);
+        }
+        if (updated == null) {
             throw new IllegalArgumentException("Contact ID not found");
         }
-        contact.setFirstName(newFirstName);
-        contact.setLastName(newLastName);
-        contact.setPhone(newPhone);
-        contact.setAddress(newAddress);
     }
 
     // Method to get contact by ID (for testing purposes)
     public Contact getContactById(String contactId) {
-        return contactMap.get(contactId);
+        return contactId == null ? null : contactMap.get(contactId);
+    }
+
+    // -------------------- Enhancement: Phone Lookup --------------------
+
+    // Contacts with the given ten-digit phone (caller-ID lookup without scanning the map)
+    public List<Contact> getContactsByPhone(String phone) {
+        List<Contact> results = new ArrayList<>(1);
+        long number = Contact.parsePhone(phone);
+        for (String contactId : phoneIndex.find(number)) {
+            Contact contact = contactMap.get(contactId);
+            // The index and the map change in separate steps, so a concurrent update can leave a stale id
+            if (contact != null && contact.getPhoneNumber() == number) {
+                results.add(contact);
+            }
+        }
+        return results;
+    }
+
+    // -------------------- Enhancement: Name Autocomplete --------------------
+
+    // Up to limit contacts whose first or last name starts with prefix (case-insensitive), ordered by name
+    public List<Contact> searchContactsByNamePrefix(String prefix, int limit) {
+        if (prefix == null || limit < 0) {
+            throw new IllegalArgumentException("Invalid prefix query");
+        }
+        String folded = SearchText.fold(prefix);
+        List<Contact> results = new ArrayList<>(Math.min(limit, 64));
+        for (String contactId : nameIndex.find(folded, limit)) {
+            Contact contact = contactMap.get(contactId);
+            // Same re-check as the phone lookup: skip ids whose contact no longer has a matching name
+            if (contact != null && (SearchText.fold(contact.getFirstName()).startsWith(folded)
+                    || SearchText.fold(contact.getLastName()).startsWith(folded))) {
+                results.add(contact);
+            }
+        }
+        return results;
+    }
+
+    // -------------------- Enhancement: Change Feed --------------------
+
+    // Publish every later add, update and delete to the feed, which may be shared with other services
+    public void enableChangeFeed(ChangeFeed<? super Contact> feed) {
+        changeFeed = feed;
+    }
+
+    // Subscribers get a read-only copy; the caller still holds the contact that was added
+    private void publishChange(ChangeEvent.Type type, String contactId, Contact contact) {
+        ChangeFeed<? super Contact> feed = changeFeed;
+        if (feed != null) {
+            feed.publish("ContactService", type, contactId, contact == null ? null : contact.readOnlyVersion());
+        }
+    }
+
+    // -------------------- Enhancement: Persistence --------------------
+
+    // Write a snapshot now and drop the journal it replaces (persistent mode only)
+    public void snapshot() throws IOException {
+        if (persistence == null) {
+            throw new IllegalStateException("Contact service is not persistent");
+        }
+        persistence.snapshot();
+    }
+
+    // Flush and close the journal; the in-memory contents stay readable
+    @Override
+    public void close() throws IOException {
+        if (persistence != null) {
+            persistence.close();
+        }
+    }
+
+    // Secondary indexes are updated inside the map's compute calls so they follow per-contact order.
+    // A contact in the indexes is claimed, so its setters cannot change the fields they are keyed on.
+    private void indexContact(Contact contact) {
+        contact.claim();
+        phoneIndex.add(contact.getPhoneNumber(), contact.getContactId());
+        nameIndex.add(contact.getFirstName(), contact.getContactId());
+        nameIndex.add(contact.getLastName(), contact.getContactId());
+    }
+
+    private void unindexContact(Contact contact) {
+        phoneIndex.remove(contact.getPhoneNumber(), contact.getContactId());
+        nameIndex.remove(contact.getFirstName(), contact.getContactId());
+        nameIndex.remove(contact.getLastName(), contact.getContactId());
+        contact.release();
+    }
+
+    private Journal beginWrite() {
+        return persistence == null ? null : persistence.beginWrite();
+    }
+
+    // Waits until the change is durable, so callers only return once it would survive a crash
+    private void endWrite(Journal journal, long position) {
+        if (persistence != null) {
+            persistence.endWrite(journal, position);
+        }
     }
 }
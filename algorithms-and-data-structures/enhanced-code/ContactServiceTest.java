@@ -4,6 +4,17 @@ import main.Contact;
 import main.ContactService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -11,6 +22,10 @@ public class ContactServiceTest {
 
     private ContactService contactService;
 
+    // Journal and snapshot directory for the persistent-mode tests; JUnit deletes it after each test
+    @TempDir
+    Path directory;
+
     @BeforeEach
     void setUp() {
         contactService = new ContactService();
@@ -61,4 +76,168 @@ public class ContactServiceTest {
         assertThrows(IllegalArgumentException.class, () ->
             contactService.updateContact("C999", "Test", "User", "0000000000", "Nowhere"));
     }
+
+    @Test
+    void testInvalidUpdateLeavesContactUnchanged() {
+        assertThrows(IllegalArgumentException.class, () ->
+            contactService.updateContact("C1", "Alicia", "Smithers", "not-phone", "987 Elm St"));
+        Contact contact = contactService.getContactById("C1");
+
+        assertAll(
+            () -> assertEquals("Alice", contact.getFirstName()),
+            () -> assertEquals("Smith", contact.getLastName()),
+            () -> assertEquals("1234567890", contact.getPhone())
+        );
+    }
+
+    @Test
+    void testConcurrentAddAcceptsEachIdOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                attempts.add(() -> {
+                    try {
+                        contactService.addContact(new Contact("C3", "Charlie", "Brown", "5555555555", "789 Pine Rd"));
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                });
+            }
+            int winners = 0;
+            for (Future<Boolean> result : pool.invokeAll(attempts)) {
+                if (result.get()) {
+                    winners++;
+                }
+            }
+            assertEquals(1, winners);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testPersistentServiceRecoversFromJournal() throws Exception {
+        try (ContactService persistent = new ContactService(directory)) {
+            persistent.addContact(new Contact("C1", "Alice", "Smith", "1234567890", "123 Main St"));
+            persistent.addContact(new Contact("C2", "Bob", "Jones", "0987654321", "456 Oak Ave"));
+            persistent.updateContact("C1", "Alicia", "Smithers", "2223334444", "987 Elm St");
+            persistent.deleteContact("C2");
+        }
+
+        try (ContactService recovered = new ContactService(directory)) {
+            assertNull(recovered.getContactById("C2"));
+            assertEquals("Alicia", recovered.getContactById("C1").getFirstName());
+            assertEquals("2223334444", recovered.getContactById("C1").getPhone());
+        }
+    }
+
+    @Test
+    void testPersistentServiceRecoversFromSnapshotAndJournalTail() throws Exception {
+        try (ContactService persistent = new ContactService(directory)) {
+            persistent.addContact(new Contact("C1", "Alice", "Smith", "1234567890", "123 Main St"));
+            persistent.addContact(new Contact("C2", "Bob", "Jones", "0987654321", "456 Oak Ave"));
+            persistent.snapshot();
+            persistent.deleteContact("C1");
+            persistent.addContact(new Contact("C3", "Charlie", "Brown", "5555555555", "789 Pine Rd"));
+        }
+
+        try (ContactService recovered = new ContactService(directory)) {
+            assertNull(recovered.getContactById("C1"));
+            assertNotNull(recovered.getContactById("C2"));
+            assertEquals("Charlie", recovered.getContactById("C3").getFirstName());
+            assertThrows(IllegalArgumentException.class, () ->
+                recovered.addContact(new Contact("C2", "Bob", "Jones", "0987654321", "456 Oak Ave")));
+        }
+    }
+
+    @Test
+    void testBackgroundSnapshotFailureReportedOnClose() throws Exception {
+        // A directory where the first snapshot's temporary file goes makes that snapshot fail
+        Files.createDirectory(directory.resolve("snapshot-1.bin.tmp"));
+        ContactService persistent = new ContactService(directory, 1);
+        persistent.addContact(new Contact("C1", "Alice", "Smith", "1234567890", "123 Main St"));
+        assertThrows(IOException.class, persistent::close);
+
+        try (ContactService recovered = new ContactService(directory)) {
+            assertEquals("Alice", recovered.getContactById("C1").getFirstName());
+        }
+    }
+
+    @Test
+    void testGetContactsByPhone() {
+        List<Contact> results = contactService.getContactsByPhone("0987654321");
+        assertEquals(1, results.size());
+        assertEquals("C2", results.get(0).getContactId());
+        assertTrue(contactService.getContactsByPhone("5555555555").isEmpty());
+    }
+
+    @Test
+    void testPhoneIndexFollowsUpdateAndDelete() {
+        contactService.addContact(new Contact("C3", "Charlie", "Brown", "0987654321", "789 Pine Rd"));
+        assertEquals(2, contactService.getContactsByPhone("0987654321").size());
+
+        contactService.updateContact("C2", "Bob", "Jones", "0001112222", "456 Oak Ave");
+        contactService.deleteContact("C3");
+
+        assertTrue(contactService.getContactsByPhone("0987654321").isEmpty());
+        assertEquals("C2", contactService.getContactsByPhone("0001112222").get(0).getContactId());
+        assertEquals("0001112222", contactService.getContactById("C2").getPhone());
+    }
+
+    @Test
+    void testStoredContactSettersRejectDirectChanges() {
+        Contact contact = contactService.getContactById("C1");
+        assertThrows(IllegalStateException.class, () -> contact.setPhone("5555555555"));
+        assertThrows(IllegalStateException.class, () -> contact.setAddress("1 Elm St"));
+        assertEquals("1234567890", contact.getPhone());
+        assertEquals("C1", contactService.getContactsByPhone("1234567890").get(0).getContactId());
+
+        // The replaced and the deleted contact belong to the caller again
+        contactService.updateContact("C1", "Alice", "Smith", "2223334444", "123 Main St");
+        contact.setPhone("5555555555");
+        Contact removed = contactService.getContactById("C2");
+        contactService.deleteContact("C2");
+        removed.setFirstName("Robert");
+        assertTrue(contactService.getContactsByPhone("5555555555").isEmpty());
+        assertEquals("C1", contactService.getContactsByPhone("2223334444").get(0).getContactId());
+    }
+
+    @Test
+    void testGetContactsByInvalidPhoneThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> contactService.getContactsByPhone("12345"));
+    }
+
+    @Test
+    void testSearchContactsByNamePrefix() {
+        contactService.addContact(new Contact("C3", "Alan", "Bond", "5555555555", "789 Pine Rd"));
+        contactService.addContact(new Contact("C4", "Zed", "Almond", "6666666666", "1 Elm St"));
+
+        List<Contact> results = contactService.searchContactsByNamePrefix("al", 10);
+        assertEquals(3, results.size());
+        assertEquals("C3", results.get(0).getContactId()); // alan
+        assertEquals("C1", results.get(1).getContactId()); // alice
+        assertEquals("C4", results.get(2).getContactId()); // almond
+
+        assertEquals(2, contactService.searchContactsByNamePrefix("AL", 2).size());
+        assertTrue(contactService.searchContactsByNamePrefix("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void testNamePrefixIndexFollowsUpdateAndDelete() {
+        contactService.updateContact("C1", "Carol", "Smith", "1234567890", "123 Main St");
+        contactService.deleteContact("C2");
+
+        assertTrue(contactService.searchContactsByNamePrefix("Ali", 10).isEmpty());
+        assertTrue(contactService.searchContactsByNamePrefix("Jo", 10).isEmpty());
+        assertEquals("C1", contactService.searchContactsByNamePrefix("car", 10).get(0).getContactId());
+    }
+
+    @Test
+    void testNamePrefixSearchRejectsDirectNameChange() {
+        assertThrows(IllegalStateException.class, () -> contactService.getContactById("C1").setFirstName("Zed"));
+        assertEquals("C1", contactService.searchContactsByNamePrefix("ali", 10).get(0).getContactId());
+        assertTrue(contactService.searchContactsByNamePrefix("zed", 10).isEmpty());
+    }
 }
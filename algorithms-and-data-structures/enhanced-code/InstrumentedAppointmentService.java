@@ -0,0 +1,214 @@
+package main;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * AppointmentService that records the count, errors and latency of every
+ * public operation. Instrumentation is opt-in by constructing this class
+ * instead of AppointmentService, so an uninstrumented service pays nothing for it.
+ * Configuration calls (enableExpiry, enableChangeFeed, enableSearchCache and
+ * getSearchCacheStats) are not operations and are not recorded. The Date
+ * overloads and getUpcomingAppointments delegate to the epoch-millis queries
+ * and are recorded under those. The conflict check and add inside bookAppointment
+ * are also recorded as findConflicts and addAppointment. streamAppointments is lazy, so its latency covers building
+ * the stream, not consuming it.
+ */
+public class InstrumentedAppointmentService extends AppointmentService {
+
+    private final ServiceMetrics metrics = new ServiceMetrics("AppointmentService");
+    private final OperationMetrics add = metrics.operation("addAppointment");
+    private final OperationMetrics delete = metrics.operation("deleteAppointment");
+    private final OperationMetrics update = metrics.operation("updateAppointment");
+    private final OperationMetrics get = metrics.operation("getAppointment");
+    private final OperationMetrics search = metrics.operation("searchAppointments");
+    private final OperationMetrics book = metrics.operation("bookAppointment");
+    private final OperationMetrics conflicts = metrics.operation("findConflicts");
+    private final OperationMetrics allConflicts = metrics.operation("findAllConflicts");
+    private final OperationMetrics between = metrics.operation("getAppointmentsBetween");
+    private final OperationMetrics next = metrics.operation("getNextAppointments");
+    private final OperationMetrics searchPage = metrics.operation("searchAppointmentsPage");
+    private final OperationMetrics stream = metrics.operation("streamAppointments");
+
+    public InstrumentedAppointmentService() {
+        super();
+    }
+
+    public InstrumentedAppointmentService(Clock clock) {
+        super(clock);
+    }
+
+    public InstrumentedAppointmentService(ForkJoinPool searchPool, int parallelThreshold) {
+        super(searchPool, parallelThreshold);
+    }
+
+    public InstrumentedAppointmentService(ForkJoinPool searchPool, int parallelThreshold, Clock clock) {
+        super(searchPool, parallelThreshold, clock);
+    }
+
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void addAppointment(Appointment appointment) {
+        long start = System.nanoTime();
+        try {
+            super.addAppointment(appointment);
+        } catch (RuntimeException e) {
+            add.recordError(start, e);
+            throw e;
+        }
+        add.record(start);
+    }
+
+    @Override
+    public void deleteAppointment(String appointmentId) {
+        long start = System.nanoTime();
+        try {
+            super.deleteAppointment(appointmentId);
+        } catch (RuntimeException e) {
+            delete.recordError(start, e);
+            throw e;
+        }
+        delete.record(start);
+    }
+
+    @Override
+    public void updateAppointment(String appointmentId, String description) {
+        long start = System.nanoTime();
+        try {
+            super.updateAppointment(appointmentId, description);
+        } catch (RuntimeException e) {
+            update.recordError(start, e);
+            throw e;
+        }
+        update.record(start);
+    }
+
+    @Override
+    public Appointment getAppointment(String appointmentId) {
+        long start = System.nanoTime();
+        Appointment appointment;
+        try {
+            appointment = super.getAppointment(appointmentId);
+        } catch (RuntimeException e) {
+            get.recordError(start, e);
+            throw e;
+        }
+        get.record(start);
+        return appointment;
+    }
+
+    @Override
+    public List<Appointment> searchAppointments(String criteria) {
+        long start = System.nanoTime();
+        List<Appointment> results;
+        try {
+            results = super.searchAppointments(criteria);
+        } catch (RuntimeException e) {
+            search.recordError(start, e);
+            throw e;
+        }
+        search.record(start);
+        return results;
+    }
+
+    @Override
+    public void bookAppointment(Appointment appointment) {
+        long start = System.nanoTime();
+        try {
+            super.bookAppointment(appointment);
+        } catch (RuntimeException e) {
+            book.recordError(start, e);
+            throw e;
+        }
+        book.record(start);
+    }
+
+    @Override
+    public List<Appointment> findConflicts(Appointment appointment) {
+        long start = System.nanoTime();
+        List<Appointment> result;
+        try {
+            result = super.findConflicts(appointment);
+        } catch (RuntimeException e) {
+            conflicts.recordError(start, e);
+            throw e;
+        }
+        conflicts.record(start);
+        return result;
+    }
+
+    @Override
+    public List<AppointmentConflict> findAllConflicts() {
+        long start = System.nanoTime();
+        List<AppointmentConflict> result;
+        try {
+            result = super.findAllConflicts();
+        } catch (RuntimeException e) {
+            allConflicts.recordError(start, e);
+            throw e;
+        }
+        allConflicts.record(start);
+        return result;
+    }
+
+    @Override
+    public List<Appointment> getAppointmentsBetween(long from, long to) {
+        long start = System.nanoTime();
+        List<Appointment> result;
+        try {
+            result = super.getAppointmentsBetween(from, to);
+        } catch (RuntimeException e) {
+            between.recordError(start, e);
+            throw e;
+        }
+        between.record(start);
+        return result;
+    }
+
+    @Override
+    public List<Appointment> getNextAppointments(long from, int count) {
+        long start = System.nanoTime();
+        List<Appointment> result;
+        try {
+            result = super.getNextAppointments(from, count);
+        } catch (RuntimeException e) {
+            next.recordError(start, e);
+            throw e;
+        }
+        next.record(start);
+        return result;
+    }
+
+    @Override
+    public SearchPage<Appointment> searchAppointments(String criteria, int limit, String pageToken) {
+        long start = System.nanoTime();
+        SearchPage<Appointment> result;
+        try {
+            result = super.searchAppointments(criteria, limit, pageToken);
+        } catch (RuntimeException e) {
+            searchPage.recordError(start, e);
+            throw e;
+        }
+        searchPage.record(start);
+        return result;
+    }
+
+    @Override
+    public Stream<Appointment> streamAppointments(String criteria) {
+        long start = System.nanoTime();
+        Stream<Appointment> result;
+        try {
+            result = super.streamAppointments(criteria);
+        } catch (RuntimeException e) {
+            stream.recordError(start, e);
+            throw e;
+        }
+        stream.record(start);
+        return result;
+    }
+}
@@ -0,0 +1,115 @@
+package main;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * ContactService that records the count, errors and latency of every public
+ * operation. Instrumentation is opt-in by constructing this class instead of
+ * ContactService, so an uninstrumented service pays nothing for it.
+ */
+public class InstrumentedContactService extends ContactService {
+
+    private final ServiceMetrics metrics = new ServiceMetrics("ContactService");
+    private final OperationMetrics add = metrics.operation("addContact");
+    private final OperationMetrics delete = metrics.operation("deleteContact");
+    private final OperationMetrics update = metrics.operation("updateContact");
+    private final OperationMetrics get = metrics.operation("getContactById");
+    private final OperationMetrics byPhone = metrics.operation("getContactsByPhone");
+    private final OperationMetrics byPrefix = metrics.operation("searchContactsByNamePrefix");
+
+    public InstrumentedContactService() {
+        super();
+    }
+
+    public InstrumentedContactService(Path directory) throws IOException {
+        super(directory);
+    }
+
+    public InstrumentedContactService(Path directory, long snapshotEveryRecords) throws IOException {
+        super(directory, snapshotEveryRecords);
+    }
+
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void addContact(Contact contact) {
+        long start = System.nanoTime();
+        try {
+            super.addContact(contact);
+        } catch (RuntimeException e) {
+            add.recordError(start, e);
+            throw e;
+        }
+        add.record(start);
+    }
+
+    @Override
+    public void deleteContact(String contactId) {
+        long start = System.nanoTime();
+        try {
+            super.deleteContact(contactId);
+        } catch (RuntimeException e) {
+            delete.recordError(start, e);
+            throw e;
+        }
+        delete.record(start);
+    }
+
+    @Override
+    public void updateContact(String contactId, String newFirstName, String newLastName, String newPhone, String newAddress) {
+        long start = System.nanoTime();
+        try {
+            super.updateContact(contactId, newFirstName, newLastName, newPhone, newAddress);
+        } catch (RuntimeException e) {
+            update.recordError(start, e);
+            throw e;
+        }
+        update.record(start);
+    }
+
+    @Override
+    public Contact getContactById(String contactId) {
+        long start = System.nanoTime();
+        Contact contact;
+        try {
+            contact = super.getContactById(contactId);
+        } catch (RuntimeException e) {
+            get.recordError(start, e);
+            throw e;
+        }
+        get.record(start);
+        return contact;
+    }
+
+    @Override
+    public List<Contact> getContactsByPhone(String phone) {
+        long start = System.nanoTime();
+        List<Contact> results;
+        try {
+            results = super.getContactsByPhone(phone);
+        } catch (RuntimeException e) {
+            byPhone.recordError(start, e);
+            throw e;
+        }
+        byPhone.record(start);
+        return results;
+    }
+
+    @Override
+    public List<Contact> searchContactsByNamePrefix(String prefix, int limit) {
+        long start = System.nanoTime();
+        List<Contact> results;
+        try {
+            results = super.searchContactsByNamePrefix(prefix, limit);
+        } catch (RuntimeException e) {
+            byPrefix.recordError(start, e);
+            throw e;
+        }
+        byPrefix.record(start);
+        return results;
+    }
+}
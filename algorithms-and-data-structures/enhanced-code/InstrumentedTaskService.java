@@ -0,0 +1,190 @@
+package main;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * TaskService that records the count, errors and latency of every public
+ * operation. Instrumentation is opt-in by constructing this class instead of
+ * TaskService, so an uninstrumented service pays nothing for it.
+ * Configuration calls (addIndex, enableChangeFeed, enableSearchCache and
+ * getSearchCacheStats) are not operations and are not recorded. streamTasks
+ * is lazy, so its latency covers building the stream, not consuming it.
+ */
+public class InstrumentedTaskService extends TaskService {
+
+    private final ServiceMetrics metrics = new ServiceMetrics("TaskService");
+    private final OperationMetrics add = metrics.operation("addTask");
+    private final OperationMetrics delete = metrics.operation("deleteTask");
+    private final OperationMetrics update = metrics.operation("updateTask");
+    private final OperationMetrics get = metrics.operation("getTask");
+    private final OperationMetrics search = metrics.operation("searchTasks");
+    private final OperationMetrics query = metrics.operation("query");
+    private final OperationMetrics addAll = metrics.operation("addAll");
+    private final OperationMetrics deleteAll = metrics.operation("deleteAll");
+    private final OperationMetrics searchPage = metrics.operation("searchTasksPage");
+    private final OperationMetrics stream = metrics.operation("streamTasks");
+    private final OperationMetrics explain = metrics.operation("explain");
+
+    public InstrumentedTaskService() {
+        super();
+    }
+
+    public InstrumentedTaskService(ForkJoinPool searchPool, int parallelThreshold) {
+        super(searchPool, parallelThreshold);
+    }
+
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void addTask(Task task) {
+        long start = System.nanoTime();
+        try {
+            super.addTask(task);
+        } catch (RuntimeException e) {
+            add.recordError(start, e);
+            throw e;
+        }
+        add.record(start);
+    }
+
+    @Override
+    public void deleteTask(String taskId) {
+        long start = System.nanoTime();
+        try {
+            super.deleteTask(taskId);
+        } catch (RuntimeException e) {
+            delete.recordError(start, e);
+            throw e;
+        }
+        delete.record(start);
+    }
+
+    @Override
+    public void updateTask(String taskId, String name, String description) {
+        long start = System.nanoTime();
+        try {
+            super.updateTask(taskId, name, description);
+        } catch (RuntimeException e) {
+            update.recordError(start, e);
+            throw e;
+        }
+        update.record(start);
+    }
+
+    @Override
+    public Task getTask(String taskId) {
+        long start = System.nanoTime();
+        Task task;
+        try {
+            task = super.getTask(taskId);
+        } catch (RuntimeException e) {
+            get.recordError(start, e);
+            throw e;
+        }
+        get.record(start);
+        return task;
+    }
+
+    @Override
+    public List<Task> searchTasks(String criteria) {
+        long start = System.nanoTime();
+        List<Task> results;
+        try {
+            results = super.searchTasks(criteria);
+        } catch (RuntimeException e) {
+            search.recordError(start, e);
+            throw e;
+        }
+        search.record(start);
+        return results;
+    }
+
+    @Override
+    public List<Task> query(TaskQuery taskQuery) {
+        long start = System.nanoTime();
+        List<Task> results;
+        try {
+            results = super.query(taskQuery);
+        } catch (RuntimeException e) {
+            query.recordError(start, e);
+            throw e;
+        }
+        query.record(start);
+        return results;
+    }
+
+    @Override
+    public BatchResult addAll(Collection<Task> batch) {
+        long start = System.nanoTime();
+        BatchResult result;
+        try {
+            result = super.addAll(batch);
+        } catch (RuntimeException e) {
+            addAll.recordError(start, e);
+            throw e;
+        }
+        addAll.record(start);
+        return result;
+    }
+
+    @Override
+    public BatchResult deleteAll(Collection<String> taskIds) {
+        long start = System.nanoTime();
+        BatchResult result;
+        try {
+            result = super.deleteAll(taskIds);
+        } catch (RuntimeException e) {
+            deleteAll.recordError(start, e);
+            throw e;
+        }
+        deleteAll.record(start);
+        return result;
+    }
+
+    @Override
+    public SearchPage<Task> searchTasks(String criteria, int limit, String pageToken) {
+        long start = System.nanoTime();
+        SearchPage<Task> result;
+        try {
+            result = super.searchTasks(criteria, limit, pageToken);
+        } catch (RuntimeException e) {
+            searchPage.recordError(start, e);
+            throw e;
+        }
+        searchPage.record(start);
+        return result;
+    }
+
+    @Override
+    public Stream<Task> streamTasks(String criteria) {
+        long start = System.nanoTime();
+        Stream<Task> result;
+        try {
+            result = super.streamTasks(criteria);
+        } catch (RuntimeException e) {
+            stream.recordError(start, e);
+            throw e;
+        }
+        stream.record(start);
+        return result;
+    }
+
+    @Override
+    public String explain(TaskQuery taskQuery) {
+        long start = System.nanoTime();
+        String result;
+        try {
+            result = super.explain(taskQuery);
+        } catch (RuntimeException e) {
+            explain.recordError(start, e);
+            throw e;
+        }
+        explain.record(start);
+        return result;
+    }
+}
@@ -0,0 +1,149 @@
+package main;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Interval tree over half-open [start, end) intervals: a treap ordered by
+ * (start, id) where every node also records the largest end in its subtree.
+ * Any subtree whose largest end is at or before the query start cannot hold an
+ * overlap and is skipped, so a query visits O(log n) nodes per reported
+ * interval instead of the whole tree.
+ */
+final class IntervalTree<V> {
+
+    private static final class Node<V> {
+        final long start;
+        final long end;
+        final String id;
+        final V value;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        long maxEnd;
+        Node<V> left;
+        Node<V> right;
+
+        Node(long start, long end, String id, V value) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.value = value;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node<V> root;
+
+    void add(long start, long end, String id, V value) {
+        root = insert(root, new Node<>(start, end, id, value));
+    }
+
+    void remove(long start, String id) {
+        root = delete(root, start, id);
+    }
+
+    // Add to out the value of every interval overlapping [start, end), in start order
+    void findOverlapping(long start, long end, List<V> out) {
+        collect(root, start, end, out);
+    }
+
+    private Node<V> insert(Node<V> node, Node<V> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<V> delete(Node<V> node, long start, String id) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(start, id, node);
+        if (c < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (c > 0) {
+            node.right = delete(node.right, start, id);
+        } else {
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    // Join two treaps where every key in left sorts before every key in right
+    private Node<V> merge(Node<V> left, Node<V> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private void collect(Node<V> node, long start, long end, List<V> out) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collect(node.left, start, end, out);
+        if (node.start < end) {
+            if (node.end > start) {
+                out.add(node.value);
+            }
+            // Right subtree starts no earlier than this node, so it is only worth visiting here
+            collect(node.right, start, end, out);
+        }
+    }
+
+    private Node<V> rotateRight(Node<V> node) {
+        Node<V> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<V> rotateLeft(Node<V> node) {
+        Node<V> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static <V> void update(Node<V> node) {
+        long maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd > maxEnd) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd > maxEnd) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static <V> int compare(long start, String id, Node<V> node) {
+        int c = Long.compare(start, node.start);
+        return c != 0 ? c : id.compareTo(node.id);
+    }
+}
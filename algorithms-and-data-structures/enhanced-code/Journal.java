@@ -0,0 +1,154 @@
+package main;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped write-ahead journal.
+ *
+ * The file is mapped in fixed-size regions and records are copied straight
+ * into the mapping. Each record is framed as [length][crc32][payload]; a
+ * zero length marks the end of the log and SKIP marks unused space at the
+ * end of a region. Durability uses group commit: {@link #sync(long)} forces
+ * the mapping once for every record appended so far, so concurrent writers
+ * waiting on the same force share a single flush.
+ */
+class Journal implements AutoCloseable {
+    static final int REGION_BYTES = 16 * 1024 * 1024;
+    private static final int HEADER_BYTES = 8;
+    private static final int SKIP = -1;
+
+    private final FileChannel channel;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long writePosition;
+
+    private final Object syncLock = new Object();
+    private volatile long durablePosition;
+
+    private Journal(FileChannel channel, long writePosition) throws IOException {
+        this.channel = channel;
+        this.writePosition = writePosition;
+        this.durablePosition = writePosition;
+        this.regionStart = writePosition - writePosition % REGION_BYTES;
+        this.region = map(regionStart);
+        this.region.position((int) (writePosition - regionStart));
+    }
+
+    /**
+     * Opens the journal, reading every intact record into payloads. A torn or
+     * corrupt record ends the log; appends continue from that point.
+     */
+    static Journal open(Path file, List<byte[]> payloads) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long position = 0;
+        long size = channel.size();
+        while (position < size) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(REGION_BYTES, size - position));
+            int end = readRegion(buffer, payloads);
+            if (end < 0) {
+                position += buffer.capacity(); // region ended in a skip marker
+            } else {
+                position += end;
+                break;
+            }
+        }
+        return new Journal(channel, position);
+    }
+
+    // Reads records from one region; returns the end-of-log offset, or -1 if the log continues in the next region
+    private static int readRegion(MappedByteBuffer buffer, List<byte[]> payloads) {
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length == SKIP) {
+                return -1;
+            }
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                return start;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            crc.reset();
+            crc.update(payload, 0, length);
+            if ((int) crc.getValue() != checksum) {
+                return start;
+            }
+            payloads.add(payload);
+        }
+        return buffer.position();
+    }
+
+    /**
+     * Copies one record into the journal.
+     * @return the journal position just after the record, to pass to {@link #sync(long)}
+     */
+    synchronized long append(byte[] payload) throws IOException {
+        int needed = HEADER_BYTES + payload.length;
+        if (payload.length == 0 || needed > REGION_BYTES - HEADER_BYTES) {
+            throw new IllegalArgumentException("Invalid journal record size");
+        }
+        // Always leave room for a header so the end of a region can hold a skip marker
+        if (region.remaining() < needed + HEADER_BYTES) {
+            nextRegion();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        region.putInt(payload.length);
+        region.putInt((int) crc.getValue());
+        region.put(payload);
+        writePosition += needed;
+        return writePosition;
+    }
+
+    // Group commit: one force covers every record appended before it started
+    void sync(long position) {
+        if (durablePosition >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durablePosition >= position) {
+                return;
+            }
+            long target;
+            MappedByteBuffer toForce;
+            synchronized (this) {
+                target = writePosition;
+                toForce = region;
+            }
+            toForce.force();
+            durablePosition = target;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        region.force();
+        durablePosition = writePosition;
+        channel.close();
+    }
+
+    // Marks the rest of the current region unused, flushes it, and maps the next one
+    private void nextRegion() throws IOException {
+        if (region.remaining() >= 4) {
+            region.putInt(SKIP);
+        }
+        region.force();
+        regionStart += REGION_BYTES;
+        writePosition = regionStart;
+        region = map(regionStart);
+    }
+
+    private MappedByteBuffer map(long start) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, start, REGION_BYTES);
+    }
+}
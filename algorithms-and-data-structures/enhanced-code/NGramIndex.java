@@ -0,0 +1,116 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted trigram index used to answer case-insensitive substring searches
+ * without scanning every entry. Each id is posted under every trigram that
+ * appears in any of its (already folded) fields. A query is answered by
+ * intersecting the postings of its own trigrams; callers must still verify
+ * each candidate because sharing trigrams does not guarantee a substring match.
+ */
+class NGramIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, Set<String>> postings = new HashMap<>();
+
+    // Post the id under every trigram of the given fields
+    void add(String id, String... fields) {
+        for (long gram : gramsOf(fields)) {
+            postings.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    // Remove the id from every trigram of the given fields
+    void remove(String id, String... fields) {
+        for (long gram : gramsOf(fields)) {
+            Set<String> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the ids that contain every trigram of the folded query, or null
+     * when the query is too short to use the index and the caller must scan.
+     */
+    Collection<String> candidates(String foldedQuery) {
+        if (foldedQuery.length() < GRAM_LENGTH) {
+            return null;
+        }
+        List<Set<String>> lists = new ArrayList<>();
+        Set<String> smallest = null;
+        for (long gram : gramsOf(foldedQuery)) {
+            Set<String> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            lists.add(ids);
+            if (smallest == null || ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+        List<String> results = new ArrayList<>();
+        for (String id : smallest) {
+            boolean inAll = true;
+            for (Set<String> ids : lists) {
+                if (ids != smallest && !ids.contains(id)) {
+                    inAll = false;
+                    break;
+                }
+            }
+            if (inAll) {
+                results.add(id);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns an upper bound on the number of candidates for the folded query
+     * (the size of its rarest trigram's postings), or -1 when the query is too
+     * short to use the index. Cheaper than candidates() as nothing is intersected.
+     */
+    int estimate(String foldedQuery) {
+        if (foldedQuery.length() < GRAM_LENGTH) {
+            return -1;
+        }
+        int smallest = Integer.MAX_VALUE;
+        for (long gram : gramsOf(foldedQuery)) {
+            Set<String> ids = postings.get(gram);
+            if (ids == null) {
+                return 0;
+            }
+            smallest = Math.min(smallest, ids.size());
+        }
+        return smallest;
+    }
+
+    private static Set<Long> gramsOf(String... fields) {
+        Set<Long> grams = new HashSet<>();
+        for (String field : fields) {
+            for (int i = 0; i + GRAM_LENGTH <= field.length(); i++) {
+                grams.add(gramAt(field, i));
+            }
+        }
+        return grams;
+    }
+
+    // The trigram starting at index i, packed into a long
+    static long gramAt(String text, int i) {
+        return ((long) text.charAt(i) << 32)
+                | ((long) text.charAt(i + 1) << 16)
+                | text.charAt(i + 2);
+    }
+}
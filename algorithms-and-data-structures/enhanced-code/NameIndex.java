@@ -0,0 +1,78 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Sorted index from folded task name to the ids carrying that name. Serves
+ * exact-name lookups with one map probe and name-prefix lookups with a range
+ * of the sorted map.
+ */
+class NameIndex implements TaskIndex {
+
+    private final NavigableMap<String, Set<String>> idsByName = new TreeMap<>();
+
+    @Override
+    public String getName() {
+        return "name";
+    }
+
+    @Override
+    public void add(Task task) {
+        idsByName.computeIfAbsent(task.getSearchName(), k -> new HashSet<>()).add(task.getTaskId());
+    }
+
+    @Override
+    public void remove(Task task) {
+        Set<String> ids = idsByName.get(task.getSearchName());
+        if (ids != null) {
+            ids.remove(task.getTaskId());
+            if (ids.isEmpty()) {
+                idsByName.remove(task.getSearchName());
+            }
+        }
+    }
+
+    @Override
+    public int estimate(TaskQuery query, int ceiling) {
+        if (query.getNameEquals() != null) {
+            Set<String> ids = idsByName.get(query.getNameEquals());
+            return ids == null ? 0 : ids.size();
+        }
+        if (query.getNamePrefix() != null) {
+            int count = 0;
+            for (Set<String> ids : byPrefix(query.getNamePrefix()).values()) {
+                count += ids.size();
+                if (count > ceiling) {
+                    break;
+                }
+            }
+            return count;
+        }
+        return -1;
+    }
+
+    @Override
+    public Collection<String> candidates(TaskQuery query) {
+        if (query.getNameEquals() != null) {
+            Set<String> ids = idsByName.get(query.getNameEquals());
+            return ids == null ? Collections.emptyList() : ids;
+        }
+        List<String> results = new ArrayList<>();
+        for (Set<String> ids : byPrefix(query.getNamePrefix()).values()) {
+            results.addAll(ids);
+        }
+        return results;
+    }
+
+    private Map<String, Set<String>> byPrefix(String prefix) {
+        return idsByName.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+}
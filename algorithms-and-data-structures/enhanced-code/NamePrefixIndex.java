@@ -0,0 +1,53 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Sorted index over folded contact names for type-ahead search.
+ *
+ * Every name is stored as "foldedName \0 contactId" in a concurrent skip
+ * list, so the entries for a prefix form one contiguous range. A top-k
+ * query seeks to the prefix in O(log n) and reads k entries from there.
+ */
+class NamePrefixIndex {
+    private static final char SEPARATOR = '\u0000';
+    private static final char MAX_CHAR = Character.MAX_VALUE;
+
+    private final NavigableSet<String> entries = new ConcurrentSkipListSet<>();
+
+    void add(String name, String contactId) {
+        entries.add(key(name, contactId));
+    }
+
+    void remove(String name, String contactId) {
+        entries.remove(key(name, contactId));
+    }
+
+    /**
+     * Ids of up to limit contacts with a name starting with the folded prefix,
+     * ordered by name then id. A contact matching on more than one name is
+     * listed once.
+     */
+    List<String> find(String foldedPrefix, int limit) {
+        Set<String> ids = new LinkedHashSet<>();
+        if (limit <= 0) {
+            return new ArrayList<>(ids);
+        }
+        for (String entry : entries.subSet(foldedPrefix, true, foldedPrefix + MAX_CHAR, true)) {
+            ids.add(entry.substring(entry.indexOf(SEPARATOR) + 1));
+            if (ids.size() == limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private static String key(String name, String contactId) {
+        return SearchText.fold(name) + SEPARATOR + contactId;
+    }
+}
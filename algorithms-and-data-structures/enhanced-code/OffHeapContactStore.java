@@ -0,0 +1,416 @@
+package main;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compact storage mode for contacts, used in place of ContactService when
+ * heap footprint matters more than per-contact objects.
+ *
+ * Each contact is packed into a fixed-width 72-byte slot in direct
+ * (off-heap) memory: one length byte plus Latin-1 characters for the id,
+ * first name, last name and address, and the ten-digit phone as a long.
+ * Slots are found through an open-addressing int index, so a stored contact
+ * costs roughly 80 bytes instead of the ~360 bytes of a Contact, its five
+ * Strings and a map node. Contacts with characters outside Latin-1 do not
+ * fit the packed layout and are kept on the heap instead.
+ *
+ * Reads share a read lock and writes take the write lock.
+ */
+public class OffHeapContactStore {
+
+    // Field widths follow the limits Contact enforces
+    private static final int ID_WIDTH = 10;
+    private static final int NAME_WIDTH = 10;
+    private static final int ADDRESS_WIDTH = 30;
+
+    private static final int ID_OFFSET = 0;
+    private static final int FIRST_OFFSET = ID_OFFSET + 1 + ID_WIDTH;
+    private static final int LAST_OFFSET = FIRST_OFFSET + 1 + NAME_WIDTH;
+    private static final int ADDRESS_OFFSET = LAST_OFFSET + 1 + NAME_WIDTH;
+    private static final int PHONE_OFFSET = ADDRESS_OFFSET + 1 + ADDRESS_WIDTH;
+    static final int SLOT_BYTES = PHONE_OFFSET + Long.BYTES;
+
+    private static final int SLOTS_PER_CHUNK_SHIFT = 16;
+    private static final int SLOTS_PER_CHUNK = 1 << SLOTS_PER_CHUNK_SHIFT;
+
+    // Index entries: 0 = empty, -1 = deleted, otherwise slot + 1
+    private static final int EMPTY = 0;
+    private static final int TOMBSTONE = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private int slotHighWater;            // slots ever handed out
+    private int[] freeSlots = new int[16]; // slots released by deletes
+    private int freeCount;
+
+    private int[] index = new int[1024];
+    private int indexUsed;                 // live entries + tombstones
+    private int size;
+
+    // Contacts that cannot be packed (characters outside Latin-1)
+    private final Map<String, Contact> overflow = new HashMap<>();
+
+    public void addContact(Contact contact) {
+        lock.writeLock().lock();
+        try {
+            String contactId = contact.getContactId();
+            if (findSlot(contactId) >= 0 || overflow.containsKey(contactId)) {
+                throw new IllegalArgumentException("Contact ID already exists");
+            }
+            if (!packable(contact)) {
+                // A private copy, so the caller's object cannot change the stored entry
+                overflow.put(contactId, copyOf(contact));
+                return;
+            }
+            int slot = allocateSlot();
+            writeSlot(slot, contact);
+            insertIndex(contactId, slot);
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void deleteContact(String contactId) {
+        lock.writeLock().lock();
+        try {
+            if (contactId != null && overflow.remove(contactId) != null) {
+                return;
+            }
+            int position = contactId == null ? -1 : findIndexPosition(contactId);
+            if (position < 0) {
+                throw new IllegalArgumentException("Contact ID not found");
+            }
+            int slot = index[position] - 1;
+            index[position] = TOMBSTONE;
+            releaseSlot(slot);
+            size--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Validates all four fields before changing anything, so a bad value leaves the contact untouched
+    public void updateContact(String contactId, String newFirstName, String newLastName, String newPhone, String newAddress) {
+        if (contactId == null) {
+            throw new IllegalArgumentException("Contact ID not found");
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(contactId);
+            if (slot < 0 && !overflow.containsKey(contactId)) {
+                throw new IllegalArgumentException("Contact ID not found");
+            }
+            Contact replacement = new Contact(contactId, newFirstName, newLastName, newPhone, newAddress);
+            if (slot >= 0 && packable(replacement)) {
+                writeSlot(slot, replacement);
+            } else if (slot >= 0) {
+                // The new values no longer fit the packed layout
+                index[findIndexPosition(contactId)] = TOMBSTONE;
+                releaseSlot(slot);
+                size--;
+                overflow.put(contactId, replacement);
+            } else if (packable(replacement)) {
+                overflow.remove(contactId);
+                int newSlot = allocateSlot();
+                writeSlot(newSlot, replacement);
+                insertIndex(contactId, newSlot);
+                size++;
+            } else {
+                overflow.put(contactId, replacement);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns a heap copy of the contact, or null if it is not stored
+    public Contact getContactById(String contactId) {
+        if (contactId == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(contactId);
+            if (slot >= 0) {
+                return new Contact(readText(slot, ID_OFFSET), readText(slot, FIRST_OFFSET),
+                        readText(slot, LAST_OFFSET), Contact.formatPhone(readPhone(slot)), readText(slot, ADDRESS_OFFSET));
+            }
+            Contact contact = overflow.get(contactId);
+            return contact == null ? null : copyOf(contact);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Points a reusable flyweight view at the contact instead of copying it.
+     * The view reads the store directly, so it reflects later updates and is
+     * only valid until the contact is deleted.
+     * @return true if the contact exists and the view now refers to it
+     */
+    public boolean view(String contactId, ContactView view) {
+        if (contactId == null) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(contactId);
+            if (slot >= 0) {
+                view.point(this, slot, null);
+                return true;
+            }
+            Contact contact = overflow.get(contactId);
+            if (contact != null) {
+                view.point(this, -1, contact);
+                return true;
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size + overflow.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Bytes reserved for packed slots (off-heap) plus the slot index (on-heap)
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) chunks.size() * SLOTS_PER_CHUNK * SLOT_BYTES
+                    + (long) index.length * Integer.BYTES + (long) freeSlots.length * Integer.BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // -------------------- Flyweight view --------------------
+
+    /**
+     * Reusable, allocation-free handle on one stored contact. Getters returning
+     * String decode on each call; getPhoneNumber reads the packed long directly.
+     */
+    public static class ContactView {
+        private OffHeapContactStore store;
+        private int slot;
+        private Contact heapContact;
+
+        void point(OffHeapContactStore store, int slot, Contact heapContact) {
+            this.store = store;
+            this.slot = slot;
+            this.heapContact = heapContact;
+        }
+
+        public String getContactId() {
+            return heapContact != null ? heapContact.getContactId() : store.readLocked(slot, ID_OFFSET);
+        }
+
+        public String getFirstName() {
+            return heapContact != null ? heapContact.getFirstName() : store.readLocked(slot, FIRST_OFFSET);
+        }
+
+        public String getLastName() {
+            return heapContact != null ? heapContact.getLastName() : store.readLocked(slot, LAST_OFFSET);
+        }
+
+        public String getAddress() {
+            return heapContact != null ? heapContact.getAddress() : store.readLocked(slot, ADDRESS_OFFSET);
+        }
+
+        public String getPhone() {
+            return Contact.formatPhone(getPhoneNumber());
+        }
+
+        // The ten-digit phone as a number (leading zeros are implied)
+        public long getPhoneNumber() {
+            if (heapContact != null) {
+                return heapContact.getPhoneNumber();
+            }
+            store.lock.readLock().lock();
+            try {
+                return store.readPhone(slot);
+            } finally {
+                store.lock.readLock().unlock();
+            }
+        }
+
+        public Contact toContact() {
+            return new Contact(getContactId(), getFirstName(), getLastName(), getPhone(), getAddress());
+        }
+    }
+
+    // -------------------- Slot layout --------------------
+
+    private static Contact copyOf(Contact contact) {
+        return new Contact(contact.getContactId(), contact.getFirstName(), contact.getLastName(),
+                contact.getPhone(), contact.getAddress());
+    }
+
+    private static boolean packable(Contact contact) {
+        return isLatin1(contact.getContactId()) && isLatin1(contact.getFirstName())
+                && isLatin1(contact.getLastName()) && isLatin1(contact.getAddress());
+    }
+
+    private static boolean isLatin1(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ByteBuffer chunkOf(int slot) {
+        return chunks.get(slot >>> SLOTS_PER_CHUNK_SHIFT);
+    }
+
+    private static int baseOf(int slot) {
+        return (slot & (SLOTS_PER_CHUNK - 1)) * SLOT_BYTES;
+    }
+
+    private void writeSlot(int slot, Contact contact) {
+        ByteBuffer chunk = chunkOf(slot);
+        int base = baseOf(slot);
+        writeText(chunk, base + ID_OFFSET, contact.getContactId());
+        writeText(chunk, base + FIRST_OFFSET, contact.getFirstName());
+        writeText(chunk, base + LAST_OFFSET, contact.getLastName());
+        writeText(chunk, base + ADDRESS_OFFSET, contact.getAddress());
+        chunk.putLong(base + PHONE_OFFSET, contact.getPhoneNumber());
+    }
+
+    private static void writeText(ByteBuffer chunk, int offset, String text) {
+        chunk.put(offset, (byte) text.length());
+        for (int i = 0; i < text.length(); i++) {
+            chunk.put(offset + 1 + i, (byte) text.charAt(i));
+        }
+    }
+
+    private String readText(int slot, int fieldOffset) {
+        ByteBuffer chunk = chunkOf(slot);
+        int offset = baseOf(slot) + fieldOffset;
+        int length = chunk.get(offset);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) (chunk.get(offset + 1 + i) & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    private String readLocked(int slot, int fieldOffset) {
+        lock.readLock().lock();
+        try {
+            return readText(slot, fieldOffset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long readPhone(int slot) {
+        return chunkOf(slot).getLong(baseOf(slot) + PHONE_OFFSET);
+    }
+
+    // Compares the stored id with contactId without decoding it
+    private boolean idEquals(int slot, String contactId) {
+        ByteBuffer chunk = chunkOf(slot);
+        int offset = baseOf(slot) + ID_OFFSET;
+        if (chunk.get(offset) != contactId.length()) {
+            return false;
+        }
+        for (int i = 0; i < contactId.length(); i++) {
+            if ((chunk.get(offset + 1 + i) & 0xFF) != contactId.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotHighWater == chunks.size() * SLOTS_PER_CHUNK) {
+            chunks.add(ByteBuffer.allocateDirect(SLOTS_PER_CHUNK * SLOT_BYTES));
+        }
+        return slotHighWater++;
+    }
+
+    private void releaseSlot(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    // -------------------- Id index (open addressing, linear probing) --------------------
+
+    // Spreads String.hashCode; rehash decodes the stored id to recompute it
+    private static int hash(String contactId) {
+        int h = contactId.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private int findSlot(String contactId) {
+        int position = findIndexPosition(contactId);
+        return position < 0 ? -1 : index[position] - 1;
+    }
+
+    private int findIndexPosition(String contactId) {
+        int mask = index.length - 1;
+        for (int position = hash(contactId) & mask; ; position = (position + 1) & mask) {
+            int entry = index[position];
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (entry != TOMBSTONE && idEquals(entry - 1, contactId)) {
+                return position;
+            }
+        }
+    }
+
+    private void insertIndex(String contactId, int slot) {
+        if ((indexUsed + 1) * 2 > index.length) {
+            rehash(size * 4 > index.length ? index.length * 2 : index.length);
+        }
+        int mask = index.length - 1;
+        int position = hash(contactId) & mask;
+        while (index[position] != EMPTY && index[position] != TOMBSTONE) {
+            position = (position + 1) & mask;
+        }
+        if (index[position] == EMPTY) {
+            indexUsed++;
+        }
+        index[position] = slot + 1;
+    }
+
+    // Rebuilds the index at the given capacity, dropping tombstones
+    private void rehash(int capacity) {
+        int[] old = index;
+        index = new int[capacity];
+        indexUsed = 0;
+        int mask = capacity - 1;
+        for (int entry : old) {
+            if (entry != EMPTY && entry != TOMBSTONE) {
+                int position = hash(readText(entry - 1, ID_OFFSET)) & mask;
+                while (index[position] != EMPTY) {
+                    position = (position + 1) & mask;
+                }
+                index[position] = entry;
+                indexUsed++;
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package test;
+
+import main.Contact;
+import main.ContactService;
+import main.OffHeapContactStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapContactStoreTest {
+
+    private OffHeapContactStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new OffHeapContactStore();
+        store.addContact(new Contact("C1", "Alice", "Smith", "0123456789", "123 Main St"));
+        store.addContact(new Contact("C2", "Bob", "Jones", "0987654321", "456 Oak Ave"));
+    }
+
+    @Test
+    void testGetContactRoundTripsAllFields() {
+        Contact contact = store.getContactById("C1");
+
+        assertAll(
+            () -> assertEquals("C1", contact.getContactId()),
+            () -> assertEquals("Alice", contact.getFirstName()),
+            () -> assertEquals("Smith", contact.getLastName()),
+            () -> assertEquals("0123456789", contact.getPhone()),
+            () -> assertEquals("123 Main St", contact.getAddress())
+        );
+    }
+
+    @Test
+    void testAddDuplicateContactThrowsException() {
+        assertThrows(IllegalArgumentException.class, () ->
+            store.addContact(new Contact("C1", "Alice", "Smith", "1234567890", "123 Main St")));
+    }
+
+    @Test
+    void testDeleteContactReusesSlot() {
+        store.deleteContact("C1");
+        assertNull(store.getContactById("C1"));
+        assertThrows(IllegalArgumentException.class, () -> store.deleteContact("C1"));
+
+        store.addContact(new Contact("C3", "Charlie", "Brown", "5555555555", "789 Pine Rd"));
+        assertEquals("Charlie", store.getContactById("C3").getFirstName());
+        assertEquals("Bob", store.getContactById("C2").getFirstName());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void testUpdateContactAndInvalidUpdate() {
+        store.updateContact("C2", "Robert", "Jonas", "1112223333", "1 New Rd");
+        assertThrows(IllegalArgumentException.class, () ->
+            store.updateContact("C2", "Rob", "Jonas", "bad", "1 New Rd"));
+
+        Contact contact = store.getContactById("C2");
+        assertEquals("Robert", contact.getFirstName());
+        assertEquals("1112223333", contact.getPhone());
+    }
+
+    @Test
+    void testFlyweightViewReadsStoredSlot() {
+        OffHeapContactStore.ContactView view = new OffHeapContactStore.ContactView();
+        assertTrue(store.view("C1", view));
+        assertEquals("Smith", view.getLastName());
+        assertEquals(123456789L, view.getPhoneNumber());
+
+        assertTrue(store.view("C2", view));
+        assertEquals("Bob", view.getFirstName());
+        assertFalse(store.view("C9", view));
+    }
+
+    @Test
+    void testNonLatin1ContactIsStoredOnHeap() {
+        store.addContact(new Contact("C4", "Zo\u00eb", "\u0141ukasz", "4445556666", "Stra\u00dfe 1"));
+        assertEquals("\u0141ukasz", store.getContactById("C4").getLastName());
+        store.deleteContact("C4");
+        assertNull(store.getContactById("C4"));
+    }
+
+    @Test
+    void testNonLatin1ContactIsReturnedAsCopy() {
+        Contact original = new Contact("C4", "Zo\u00eb", "\u0141ukasz", "4445556666", "Stra\u00dfe 1");
+        store.addContact(original);
+        original.setLastName("Changed");
+        store.getContactById("C4").setLastName("Changed");
+        assertEquals("\u0141ukasz", store.getContactById("C4").getLastName());
+    }
+
+    @Test
+    void testUsesAtLeastThreeTimesLessMemoryThanContactService() {
+        // Four full chunks of slots, so the comparison is not skewed by a partly used chunk
+        int count = 4 << 16;
+        OffHeapContactStore packed = new OffHeapContactStore();
+        long before = usedHeap();
+        ContactService service = new ContactService();
+        for (int i = 0; i < count; i++) {
+            Contact contact = new Contact("C" + i, "F" + i, "L" + i,
+                    Contact.formatPhone(5_550_000_000L + i), i + " Main St");
+            service.addContact(contact);
+            packed.addContact(contact);
+        }
+        long serviceBytes = usedHeap() - before;
+
+        // Reading the service after the measurement keeps it reachable while the heap is sampled
+        assertNotNull(service.getContactById("C0"));
+        assertEquals(count, packed.size());
+        assertTrue(packed.memoryBytes() * 3 <= serviceBytes,
+            "off-heap " + packed.memoryBytes() + " bytes vs ContactService " + serviceBytes + " bytes");
+    }
+
+    // Heap in use after the collector has settled
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    @Test
+    void testManyContactsSurviveIndexGrowth() {
+        for (int i = 0; i < 5000; i++) {
+            store.addContact(new Contact("X" + i, "First", "Last", "1234567890", "Addr " + i));
+        }
+        for (int i = 0; i < 5000; i += 2) {
+            store.deleteContact("X" + i);
+        }
+        assertNull(store.getContactById("X10"));
+        assertEquals("Addr 4999", store.getContactById("X4999").getAddress());
+        assertEquals(2502, store.size());
+    }
+}
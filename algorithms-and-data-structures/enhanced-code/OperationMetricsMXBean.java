@@ -0,0 +1,26 @@
+package main;
+
+import java.util.Map;
+
+/**
+ * JMX view of one service operation. Latencies are in microseconds.
+ */
+public interface OperationMetricsMXBean {
+
+    long getCount();
+
+    long getErrorCount();
+
+    // Failed calls keyed by the exception message, e.g. "Task ID not found"
+    Map<String, Long> getErrors();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+}
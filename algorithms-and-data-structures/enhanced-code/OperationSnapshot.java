@@ -0,0 +1,76 @@
+package main;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable copy of one operation's metrics at the moment it was taken.
+ * Latencies are in nanoseconds.
+ */
+public class OperationSnapshot {
+
+    private final String name;
+    private final long count;
+    private final long errorCount;
+    private final Map<String, Long> errors;
+    private final double meanNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+
+    OperationSnapshot(OperationMetrics metrics) {
+        LatencyHistogram latency = metrics.getLatency();
+        this.name = metrics.getName();
+        this.count = latency.getCount();
+        this.errorCount = metrics.getErrorCount();
+        this.errors = Collections.unmodifiableMap(metrics.getErrors());
+        this.meanNanos = latency.getMeanNanos();
+        this.p50Nanos = latency.getValueAtPercentile(0.50);
+        this.p90Nanos = latency.getValueAtPercentile(0.90);
+        this.p99Nanos = latency.getValueAtPercentile(0.99);
+        this.p999Nanos = latency.getValueAtPercentile(0.999);
+        this.maxNanos = latency.getMaxNanos();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public Map<String, Long> getErrors() {
+        return errors;
+    }
+
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+}
@@ -0,0 +1,71 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Filters a collection on a ForkJoinPool by splitting it into contiguous chunks.
+ * Each chunk keeps its matches in order and the halves are joined left before
+ * right, so the result is in exactly the order a sequential scan would produce.
+ */
+final class ParallelScan {
+
+    // Smallest chunk worth handing to another worker
+    static final int MIN_CHUNK = 4096;
+
+    private ParallelScan() {
+    }
+
+    static <T> List<T> filter(Collection<T> source, Predicate<T> test, ForkJoinPool pool) {
+        @SuppressWarnings("unchecked")
+        T[] items = (T[]) source.toArray();
+        // Aim for a few chunks per worker so a slow chunk does not hold up the join
+        int chunk = Math.max(MIN_CHUNK, items.length / (pool.getParallelism() * 4));
+        return pool.invoke(new Chunk<>(items, 0, items.length, chunk, test));
+    }
+
+    private static final class Chunk<T> extends RecursiveTask<List<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] items;
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final Predicate<T> test;
+
+        Chunk(T[] items, int from, int to, int chunk, Predicate<T> test) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.test = test;
+        }
+
+        @Override
+        protected List<T> compute() {
+            if (to - from <= chunk) {
+                List<T> matches = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    if (test.test(items[i])) {
+                        matches.add(items[i]);
+                    }
+                }
+                return matches;
+            }
+            int middle = (from + to) >>> 1;
+            Chunk<T> right = new Chunk<>(items, middle, to, chunk, test);
+            right.fork();
+            List<T> matches = new Chunk<>(items, from, middle, chunk, test).compute();
+            List<T> rightMatches = right.join();
+            if (matches.isEmpty()) {
+                return rightMatches;
+            }
+            matches.addAll(rightMatches);
+            return matches;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package main;
+
+import java.util.function.Consumer;
+
+/**
+ * Immutable hash array mapped trie from task id to task. An update copies only
+ * the path from the root to the changed entry (at most seven small arrays), so
+ * every older map stays valid and unchanged for whoever still holds it.
+ */
+final class PersistentTaskMap {
+
+    static final PersistentTaskMap EMPTY = new PersistentTaskMap(null, 0);
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private final Node root;
+    private final int size;
+
+    private PersistentTaskMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Task get(String taskId) {
+        return root == null ? null : root.get(hash(taskId), 0, taskId);
+    }
+
+    // A map with the task stored under its id, replacing any task already there
+    PersistentTaskMap with(Task task) {
+        String taskId = task.getTaskId();
+        int hash = hash(taskId);
+        int added = get(taskId) == null ? 1 : 0;
+        Node updated = root == null
+                ? new BitmapNode(1 << (hash & MASK), new Object[] {task})
+                : root.with(hash, 0, task);
+        return new PersistentTaskMap(updated, size + added);
+    }
+
+    // A map without the given id, or this map if the id is not present
+    PersistentTaskMap without(String taskId) {
+        if (get(taskId) == null) {
+            return this;
+        }
+        return new PersistentTaskMap(root.without(hash(taskId), 0, taskId), size - 1);
+    }
+
+    void forEach(Consumer<Task> action) {
+        if (root != null) {
+            root.forEach(action);
+        }
+    }
+
+    private static int hash(String taskId) {
+        int h = taskId.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private abstract static class Node {
+        abstract Task get(int hash, int shift, String taskId);
+
+        abstract Node with(int hash, int shift, Task task);
+
+        // Null when the node becomes empty
+        abstract Node without(int hash, int shift, String taskId);
+
+        abstract void forEach(Consumer<Task> action);
+    }
+
+    // Up to 32 slots addressed by five bits of the hash; each slot is a Task or a child Node
+    private static final class BitmapNode extends Node {
+        final int bitmap;
+        final Object[] slots;
+
+        BitmapNode(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        @Override
+        Task get(int hash, int shift, String taskId) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = slots[index(bit)];
+            if (slot instanceof Node) {
+                return ((Node) slot).get(hash, shift + BITS, taskId);
+            }
+            Task task = (Task) slot;
+            return task.getTaskId().equals(taskId) ? task : null;
+        }
+
+        @Override
+        Node with(int hash, int shift, Task task) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] copy = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, copy, 0, index);
+                copy[index] = task;
+                System.arraycopy(slots, index, copy, index + 1, slots.length - index);
+                return new BitmapNode(bitmap | bit, copy);
+            }
+            Object slot = slots[index];
+            Object replacement;
+            if (slot instanceof Node) {
+                replacement = ((Node) slot).with(hash, shift + BITS, task);
+            } else if (((Task) slot).getTaskId().equals(task.getTaskId())) {
+                replacement = task;
+            } else {
+                Task existing = (Task) slot;
+                replacement = pair(existing, hash(existing.getTaskId()), task, hash, shift + BITS);
+            }
+            Object[] copy = slots.clone();
+            copy[index] = replacement;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        @Override
+        Node without(int hash, int shift, String taskId) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = index(bit);
+            Object slot = slots[index];
+            Object replacement;
+            if (slot instanceof Node) {
+                Node child = ((Node) slot).without(hash, shift + BITS, taskId);
+                if (child == slot) {
+                    return this;
+                }
+                replacement = child;
+                // Pull a lone task back up so chains of single-entry nodes do not build up
+                if (child instanceof BitmapNode && ((BitmapNode) child).slots.length == 1
+                        && ((BitmapNode) child).slots[0] instanceof Task) {
+                    replacement = ((BitmapNode) child).slots[0];
+                } else if (child instanceof CollisionNode && ((CollisionNode) child).tasks.length == 1) {
+                    replacement = ((CollisionNode) child).tasks[0];
+                }
+            } else if (((Task) slot).getTaskId().equals(taskId)) {
+                replacement = null;
+            } else {
+                return this;
+            }
+            if (replacement != null) {
+                Object[] copy = slots.clone();
+                copy[index] = replacement;
+                return new BitmapNode(bitmap, copy);
+            }
+            if (slots.length == 1) {
+                return null;
+            }
+            Object[] copy = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, copy, 0, index);
+            System.arraycopy(slots, index + 1, copy, index, slots.length - index - 1);
+            return new BitmapNode(bitmap & ~bit, copy);
+        }
+
+        @Override
+        void forEach(Consumer<Task> action) {
+            for (Object slot : slots) {
+                if (slot instanceof Node) {
+                    ((Node) slot).forEach(action);
+                } else {
+                    action.accept((Task) slot);
+                }
+            }
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+    }
+
+    // Tasks whose ids have identical 32-bit hashes
+    private static final class CollisionNode extends Node {
+        final Task[] tasks;
+
+        CollisionNode(Task[] tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        Task get(int hash, int shift, String taskId) {
+            for (Task task : tasks) {
+                if (task.getTaskId().equals(taskId)) {
+                    return task;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        Node with(int hash, int shift, Task task) {
+            for (int i = 0; i < tasks.length; i++) {
+                if (tasks[i].getTaskId().equals(task.getTaskId())) {
+                    Task[] copy = tasks.clone();
+                    copy[i] = task;
+                    return new CollisionNode(copy);
+                }
+            }
+            Task[] copy = new Task[tasks.length + 1];
+            System.arraycopy(tasks, 0, copy, 0, tasks.length);
+            copy[tasks.length] = task;
+            return new CollisionNode(copy);
+        }
+
+        @Override
+        Node without(int hash, int shift, String taskId) {
+            for (int i = 0; i < tasks.length; i++) {
+                if (tasks[i].getTaskId().equals(taskId)) {
+                    if (tasks.length == 1) {
+                        return null;
+                    }
+                    Task[] copy = new Task[tasks.length - 1];
+                    System.arraycopy(tasks, 0, copy, 0, i);
+                    System.arraycopy(tasks, i + 1, copy, i, tasks.length - i - 1);
+                    return new CollisionNode(copy);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        void forEach(Consumer<Task> action) {
+            for (Task task : tasks) {
+                action.accept(task);
+            }
+        }
+    }
+
+    // The smallest subtree holding two tasks whose hashes agree below the given shift
+    private static Node pair(Task first, int firstHash, Task second, int secondHash, int shift) {
+        if (shift >= 32) {
+            return new CollisionNode(new Task[] {first, second});
+        }
+        int firstIndex = (firstHash >>> shift) & MASK;
+        int secondIndex = (secondHash >>> shift) & MASK;
+        if (firstIndex == secondIndex) {
+            return new BitmapNode(1 << firstIndex,
+                    new Object[] {pair(first, firstHash, second, secondHash, shift + BITS)});
+        }
+        Object[] slots = firstIndex < secondIndex ? new Object[] {first, second} : new Object[] {second, first};
+        return new BitmapNode((1 << firstIndex) | (1 << secondIndex), slots);
+    }
+}
@@ -0,0 +1,177 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reverse index from a packed phone number to the ids of the contacts using it.
+ *
+ * Each stripe is an open-addressing table with primitive long keys, so an
+ * entry costs a long plus a reference instead of a boxed key and a map node.
+ * A value is the contact id, or a String[] when several contacts share a
+ * number. Stripes are locked independently so concurrent writers to
+ * different numbers rarely contend.
+ */
+class PhoneIndex {
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    PhoneIndex() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    void add(long phone, String contactId) {
+        Stripe stripe = stripeFor(phone);
+        synchronized (stripe) {
+            stripe.add(phone, contactId);
+        }
+    }
+
+    void remove(long phone, String contactId) {
+        Stripe stripe = stripeFor(phone);
+        synchronized (stripe) {
+            stripe.remove(phone, contactId);
+        }
+    }
+
+    // Ids of every contact with this phone, in the order they were indexed
+    List<String> find(long phone) {
+        Stripe stripe = stripeFor(phone);
+        Object value;
+        synchronized (stripe) {
+            value = stripe.get(phone);
+        }
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        if (value instanceof String) {
+            return Collections.singletonList((String) value);
+        }
+        return Collections.unmodifiableList(Arrays.asList((String[]) value));
+    }
+
+    private Stripe stripeFor(long phone) {
+        return stripes[(int) (mix(phone) >>> 58)];
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * Linear-probing table; a null value marks an empty bucket, so every
+     * phone (including all zeros) is a valid key. Deletes shift later
+     * entries back instead of leaving tombstones.
+     */
+    private static class Stripe {
+        private long[] keys = new long[16];
+        private Object[] values = new Object[16];
+        private int size;
+
+        Object get(long phone) {
+            int mask = keys.length - 1;
+            for (int i = (int) mix(phone) & mask; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == phone) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        void add(long phone, String contactId) {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = (int) mix(phone) & mask;
+            while (values[i] != null) {
+                if (keys[i] == phone) {
+                    values[i] = append(values[i], contactId);
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = phone;
+            values[i] = contactId;
+            size++;
+        }
+
+        void remove(long phone, String contactId) {
+            int mask = keys.length - 1;
+            int i = (int) mix(phone) & mask;
+            while (values[i] != null && keys[i] != phone) {
+                i = (i + 1) & mask;
+            }
+            if (values[i] == null) {
+                return;
+            }
+            Object remaining = without(values[i], contactId);
+            if (remaining != null) {
+                values[i] = remaining;
+                return;
+            }
+            // Backward-shift deletion keeps probe chains intact without tombstones
+            values[i] = null;
+            size--;
+            for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+                int home = (int) mix(keys[j]) & mask;
+                boolean movable = i <= j ? (home <= i || home > j) : (home <= i && home > j);
+                if (movable) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    values[j] = null;
+                    i = j;
+                }
+            }
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            keys = new long[capacity];
+            values = new Object[capacity];
+            int mask = capacity - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldValues[j] != null) {
+                    int i = (int) mix(oldKeys[j]) & mask;
+                    while (values[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+
+        private static Object append(Object value, String contactId) {
+            if (value instanceof String) {
+                return new String[] {(String) value, contactId};
+            }
+            String[] ids = (String[]) value;
+            String[] grown = Arrays.copyOf(ids, ids.length + 1);
+            grown[ids.length] = contactId;
+            return grown;
+        }
+
+        // The value with contactId removed, or null if nothing is left
+        private static Object without(Object value, String contactId) {
+            if (value instanceof String) {
+                return value.equals(contactId) ? null : value;
+            }
+            List<String> ids = new ArrayList<>(Arrays.asList((String[]) value));
+            ids.remove(contactId);
+            if (ids.isEmpty()) {
+                return null;
+            }
+            return ids.size() == 1 ? ids.get(0) : ids.toArray(new String[0]);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded LRU cache of search results keyed by the folded query, with an
+ * optional time to live.
+ *
+ * A write only drops the entries whose query occurs in the old or new text of
+ * the changed item, since those are the only results it can change. To find
+ * them without walking the whole cache, each query of three or more characters
+ * is filed under its first trigram; any text containing the query contains that
+ * trigram, so only the queries filed under the text's own trigrams are checked.
+ * Shorter queries are few and are always checked.
+ */
+final class SearchCache<T> {
+
+    private static final class Entry<T> {
+        final List<T> results;
+        final long expiresAt;
+
+        Entry(List<T> results, long expiresAt) {
+            this.results = results;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry<T>> entries;
+    private final Map<Long, Set<String>> queriesByGram = new HashMap<>();
+    private final Set<String> shortQueries = new HashSet<>();
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long expirationCount;
+    private long invalidationCount;
+
+    // A ttlMillis of 0 keeps entries until they are evicted or invalidated
+    SearchCache(int maxEntries, long ttlMillis) {
+        if (maxEntries < 1 || ttlMillis < 0) {
+            throw new IllegalArgumentException("Invalid cache settings");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    // A copy of the cached results, or null on a miss
+    synchronized List<T> get(String query) {
+        Entry<T> entry = entries.get(query);
+        if (entry != null && ttlNanos > 0 && System.nanoTime() - entry.expiresAt > 0) {
+            remove(query);
+            expirationCount++;
+            entry = null;
+        }
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return new ArrayList<>(entry.results);
+    }
+
+    synchronized void put(String query, List<T> results) {
+        if (entries.containsKey(query)) {
+            remove(query);
+        } else if (entries.size() == maxEntries) {
+            // Access order puts the least recently used query first
+            remove(entries.keySet().iterator().next());
+            evictionCount++;
+        }
+        entries.put(query, new Entry<>(new ArrayList<>(results), System.nanoTime() + ttlNanos));
+        if (query.length() < NGramIndex.GRAM_LENGTH) {
+            shortQueries.add(query);
+        } else {
+            queriesByGram.computeIfAbsent(NGramIndex.gramAt(query, 0), k -> new HashSet<>()).add(query);
+        }
+    }
+
+    // Drop every cached query that occurs in any of the given folded texts
+    synchronized void invalidate(String... texts) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<String> stale = new ArrayList<>();
+        for (String text : texts) {
+            for (String query : shortQueries) {
+                if (text.contains(query)) {
+                    stale.add(query);
+                }
+            }
+            for (int i = 0; i + NGramIndex.GRAM_LENGTH <= text.length(); i++) {
+                Set<String> queries = queriesByGram.get(NGramIndex.gramAt(text, i));
+                if (queries != null) {
+                    for (String query : queries) {
+                        if (text.startsWith(query, i)) {
+                            stale.add(query);
+                        }
+                    }
+                }
+            }
+        }
+        for (String query : stale) {
+            if (remove(query)) {
+                invalidationCount++;
+            }
+        }
+    }
+
+    synchronized CacheStats stats() {
+        return new CacheStats(hitCount, missCount, evictionCount, expirationCount,
+                invalidationCount, entries.size());
+    }
+
+    private boolean remove(String query) {
+        if (entries.remove(query) == null) {
+            return false;
+        }
+        if (query.length() < NGramIndex.GRAM_LENGTH) {
+            shortQueries.remove(query);
+        } else {
+            long gram = NGramIndex.gramAt(query, 0);
+            Set<String> queries = queriesByGram.get(gram);
+            queries.remove(query);
+            if (queries.isEmpty()) {
+                queriesByGram.remove(gram);
+            }
+        }
+        return true;
+    }
+}
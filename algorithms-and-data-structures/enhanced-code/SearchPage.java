@@ -0,0 +1,32 @@
+package main;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of search results. The next page token is opaque to callers: pass it
+ * back to the same search to continue after the last result on this page. It is
+ * null once there are no more matches.
+ */
+public class SearchPage<T> {
+
+    private final List<T> results;
+    private final String nextPageToken;
+
+    SearchPage(List<T> results, String nextPageToken) {
+        this.results = Collections.unmodifiableList(results);
+        this.nextPageToken = nextPageToken;
+    }
+
+    public List<T> getResults() {
+        return results;
+    }
+
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+}
@@ -0,0 +1,16 @@
+package main;
+
+/**
+ * Case folding shared by the cached search keys on Task and Appointment and
+ * by the queries run against them, so both sides are always folded the same way.
+ */
+public final class SearchText {
+
+    private SearchText() {
+    }
+
+    // Fold text for case-insensitive matching
+    public static String fold(String text) {
+        return text.toLowerCase();
+    }
+}
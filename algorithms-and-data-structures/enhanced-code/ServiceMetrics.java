@@ -0,0 +1,72 @@
+package main;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The operation metrics of one instrumented service, in the order the
+ * operations were declared. Each operation can be published to the platform
+ * MBean server as main:type=ServiceMetrics,service=<service>,operation=<name>.
+ */
+public class ServiceMetrics {
+
+    private final String service;
+    private final Map<String, OperationMetrics> operations = new LinkedHashMap<>();
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    ServiceMetrics(String service) {
+        this.service = service;
+    }
+
+    // Declare an operation; only called while the instrumented service is constructed
+    OperationMetrics operation(String name) {
+        OperationMetrics metrics = new OperationMetrics(name);
+        operations.put(name, metrics);
+        return metrics;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public OperationMetrics getOperation(String name) {
+        return operations.get(name);
+    }
+
+    // A consistent-enough copy of every operation's counters and percentiles
+    public List<OperationSnapshot> snapshot() {
+        List<OperationSnapshot> snapshots = new ArrayList<>(operations.size());
+        for (OperationMetrics metrics : operations.values()) {
+            snapshots.add(new OperationSnapshot(metrics));
+        }
+        return Collections.unmodifiableList(snapshots);
+    }
+
+    // Fails if another instance with the same service name is already registered
+    public synchronized void registerMBeans() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (OperationMetrics metrics : operations.values()) {
+            ObjectName name = new ObjectName("main:type=ServiceMetrics,service=" + service
+                    + ",operation=" + metrics.getName());
+            server.registerMBean(metrics, name);
+            registered.add(name);
+        }
+    }
+
+    public synchronized void unregisterMBeans() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registered) {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        }
+        registered.clear();
+    }
+}
@@ -0,0 +1,106 @@
+package test;
+
+import main.Appointment;
+import main.InstrumentedAppointmentService;
+import main.InstrumentedContactService;
+import main.InstrumentedTaskService;
+import main.LatencyHistogram;
+import main.OperationSnapshot;
+import main.ServiceMetrics;
+import main.Task;
+import main.Contact;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import javax.management.ObjectName;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ServiceMetricsTest {
+
+    private InstrumentedTaskService taskService;
+
+    @BeforeEach
+    void setUp() {
+        taskService = new InstrumentedTaskService();
+        taskService.addTask(new Task("1", "Write Report", "Complete project report by Monday"));
+        taskService.addTask(new Task("2", "Code Review", "Review the pull requests for bug fixes"));
+    }
+
+    @Test
+    void testCountsCallsAndErrorsByMessage() {
+        taskService.searchTasks("report");
+        assertThrows(IllegalArgumentException.class, () -> taskService.addTask(new Task("1", "Again", "Duplicate")));
+        assertThrows(IllegalArgumentException.class, () -> taskService.deleteTask("99"));
+
+        ServiceMetrics metrics = taskService.getMetrics();
+        assertEquals(3, metrics.getOperation("addTask").getCount());
+        assertEquals(1, metrics.getOperation("addTask").getErrorCount());
+        assertEquals(Long.valueOf(1), metrics.getOperation("addTask").getErrors().get("Task ID must be unique"));
+        assertEquals(Long.valueOf(1), metrics.getOperation("deleteTask").getErrors().get("Task ID not found"));
+        assertEquals(1, metrics.getOperation("searchTasks").getCount());
+    }
+
+    @Test
+    void testLaterOperationsAreRecorded() {
+        taskService.searchTasks("report", 1, null);
+        taskService.streamTasks("report");
+
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(1_000_000), ZoneOffset.UTC);
+        InstrumentedAppointmentService appointmentService = new InstrumentedAppointmentService(clock);
+        appointmentService.bookAppointment(new Appointment("A1", 2_000_000, "Dentist", 1000, clock));
+        assertThrows(IllegalArgumentException.class, () ->
+            appointmentService.bookAppointment(new Appointment("A2", 2_000_500, "Lunch", 1000, clock)));
+        appointmentService.findAllConflicts();
+        appointmentService.getUpcomingAppointments(5);
+
+        ServiceMetrics taskMetrics = taskService.getMetrics();
+        assertEquals(1, taskMetrics.getOperation("searchTasksPage").getCount());
+        assertEquals(1, taskMetrics.getOperation("streamTasks").getCount());
+        ServiceMetrics metrics = appointmentService.getMetrics();
+        assertEquals(2, metrics.getOperation("bookAppointment").getCount());
+        assertEquals(1, metrics.getOperation("bookAppointment").getErrorCount());
+        assertEquals(1, metrics.getOperation("addAppointment").getCount());
+        assertEquals(1, metrics.getOperation("findAllConflicts").getCount());
+        assertEquals(1, metrics.getOperation("getNextAppointments").getCount());
+        assertEquals("A1", appointmentService.getUpcomingAppointments(1).get(0).getAppointmentId());
+    }
+
+    @Test
+    void testSnapshotListsEveryOperation() {
+        List<OperationSnapshot> snapshot = taskService.getMetrics().snapshot();
+        assertEquals("addTask", snapshot.get(0).getName());
+        assertEquals(2, snapshot.get(0).getCount());
+        assertTrue(snapshot.get(0).getP50Nanos() <= snapshot.get(0).getMaxNanos());
+    }
+
+    @Test
+    void testHistogramPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        long p50 = histogram.getValueAtPercentile(0.50);
+        long p99 = histogram.getValueAtPercentile(0.99);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.04, "p50 was " + p50);
+        assertTrue(p99 >= 990_000 && p99 <= 990_000 * 1.04, "p99 was " + p99);
+        assertEquals(1_000_000, histogram.getMaxNanos());
+    }
+
+    @Test
+    void testMetricsPublishedOverJmx() throws Exception {
+        InstrumentedContactService contactService = new InstrumentedContactService();
+        contactService.addContact(new Contact("C1", "Ada", "Lovelace", "5551234567", "12 Main St"));
+        ServiceMetrics metrics = contactService.getMetrics();
+        metrics.registerMBeans();
+        try {
+            ObjectName name = new ObjectName("main:type=ServiceMetrics,service=ContactService,operation=addContact");
+            assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Count"));
+        } finally {
+            metrics.unregisterMBeans();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package main;
+
+import java.util.List;
+
+/**
+ * Task store for read-heavy concurrent use. Writers are serialized and each
+ * write publishes a new immutable snapshot; readers take the current snapshot
+ * with a single volatile read and never lock or wait. An update replaces the
+ * task with a new read-only version instead of changing it in place, so no
+ * reader can see a new name paired with an old description.
+ */
+public class SnapshotTaskService {
+
+    private volatile TaskSnapshot current = new TaskSnapshot(PersistentTaskMap.EMPTY, 0);
+
+    // A consistent view of every task as of now; stays valid however long it is kept
+    public TaskSnapshot snapshot() {
+        return current;
+    }
+
+    public Task getTask(String taskId) {
+        return current.getTask(taskId);
+    }
+
+    public List<Task> searchTasks(String criteria) {
+        return current.searchTasks(criteria);
+    }
+
+    // Stores a read-only copy of the task, so later changes to the caller's object are not seen
+    public synchronized void addTask(Task task) {
+        TaskSnapshot snapshot = current;
+        if (snapshot.tasks().get(task.getTaskId()) != null) {
+            throw new IllegalArgumentException("Task ID must be unique");
+        }
+        Task version = task.readOnlyVersion(task.getName(), task.getDescription());
+        publish(snapshot, snapshot.tasks().with(version));
+    }
+
+    public synchronized void deleteTask(String taskId) {
+        TaskSnapshot snapshot = current;
+        if (taskId == null || snapshot.tasks().get(taskId) == null) {
+            throw new IllegalArgumentException("Task ID not found");
+        }
+        publish(snapshot, snapshot.tasks().without(taskId));
+    }
+
+    // Name and description change together or not at all
+    public synchronized void updateTask(String taskId, String name, String description) {
+        TaskSnapshot snapshot = current;
+        Task task = taskId == null ? null : snapshot.tasks().get(taskId);
+        if (task == null) {
+            throw new IllegalArgumentException("Task ID not found");
+        }
+        publish(snapshot, snapshot.tasks().with(task.readOnlyVersion(name, description)));
+    }
+
+    private void publish(TaskSnapshot previous, PersistentTaskMap tasks) {
+        current = new TaskSnapshot(tasks, previous.getVersion() + 1);
+    }
+}
@@ -0,0 +1,112 @@
+package test;
+
+import main.SnapshotTaskService;
+import main.Task;
+import main.TaskSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotTaskServiceTest {
+
+    private SnapshotTaskService taskService;
+
+    @BeforeEach
+    void setUp() {
+        taskService = new SnapshotTaskService();
+        taskService.addTask(new Task("1", "Write Report", "Complete project report by Monday"));
+        taskService.addTask(new Task("2", "Code Review", "Review the pull requests for bug fixes"));
+    }
+
+    @Test
+    void testSnapshotIsNotAffectedByLaterWrites() {
+        TaskSnapshot before = taskService.snapshot();
+        taskService.updateTask("1", "Write Summary", "Summarize the project");
+        taskService.deleteTask("2");
+        taskService.addTask(new Task("3", "Meeting", "Team sync-up meeting"));
+
+        assertEquals(2, before.size());
+        assertEquals("Write Report", before.getTask("1").getName());
+        assertNotNull(before.getTask("2"));
+        assertNull(before.getTask("3"));
+        assertEquals(1, before.searchTasks("report").size());
+
+        TaskSnapshot after = taskService.snapshot();
+        assertEquals(before.getVersion() + 3, after.getVersion());
+        assertEquals("Write Summary", after.getTask("1").getName());
+        assertTrue(after.searchTasks("report").isEmpty());
+    }
+
+    @Test
+    void testUpdateIsAllOrNothing() {
+        assertThrows(IllegalArgumentException.class, () ->
+            taskService.updateTask("1", "Write Summary", "This description is far too long to be accepted by the task"));
+        assertEquals("Write Report", taskService.getTask("1").getName());
+    }
+
+    @Test
+    void testPublishedVersionsAreReadOnly() {
+        Task task = taskService.getTask("1");
+        assertThrows(IllegalStateException.class, () -> task.setName("Changed"));
+    }
+
+    @Test
+    void testDuplicateAndMissingIds() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.addTask(new Task("1", "Again", "Duplicate")));
+        assertThrows(IllegalArgumentException.class, () -> taskService.deleteTask("99"));
+        assertThrows(IllegalArgumentException.class, () -> taskService.updateTask("99", "Name", "Description"));
+    }
+
+    @Test
+    void testMatchesHashMapUnderRandomWrites() {
+        Map<String, String> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            String id = "T" + random.nextInt(5000);
+            int op = random.nextInt(3);
+            if (op == 0 && !expected.containsKey(id)) {
+                taskService.addTask(new Task(id, "Name " + i, "Description"));
+                expected.put(id, "Name " + i);
+            } else if (op == 1 && expected.containsKey(id)) {
+                taskService.updateTask(id, "Name " + i, "Description");
+                expected.put(id, "Name " + i);
+            } else if (op == 2 && expected.containsKey(id)) {
+                taskService.deleteTask(id);
+                expected.remove(id);
+            }
+        }
+        TaskSnapshot snapshot = taskService.snapshot();
+        assertEquals(expected.size() + 2, snapshot.size());
+        for (Map.Entry<String, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), snapshot.getTask(entry.getKey()).getName());
+        }
+    }
+
+    @Test
+    void testReadersNeverSeeHalfAppliedUpdates() throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger torn = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                Task task = taskService.getTask("1");
+                // Every update below writes the same number into both fields
+                if (!task.getDescription().substring(8).equals(task.getName().substring(5))) {
+                    torn.incrementAndGet();
+                }
+            }
+        });
+        taskService.updateTask("1", "Name 0", "Version 0");
+        reader.start();
+        for (int i = 1; i < 20000; i++) {
+            taskService.updateTask("1", "Name " + i, "Version " + i);
+        }
+        running.set(false);
+        reader.join();
+        assertEquals(0, torn.get());
+    }
+}
@@ -0,0 +1,110 @@
+package main;
+
+public class Task {
+    private final String taskId; // cannot be longer than 10 characters, not null, not updatable
+    private String name; // cannot be longer than 20 characters, not null
+    private String description; // cannot be longer than 50 characters, not null
+
+    // Lowercased copies of name and description, refreshed by the setters so searches never fold per entry
+    private String searchName;
+    private String searchDescription;
+
+    // Versions published by SnapshotTaskService are shared with concurrent readers and never change
+    private boolean readOnly;
+
+    // Number of TaskService instances holding this task; while held, their indexes and caches
+    // are keyed on the current name and description, so changes must go through updateTask
+    private int owners;
+
+    public Task(String taskId, String name, String description) {
+        if (taskId == null || taskId.length() > 10) {
+            throw new IllegalArgumentException("Invalid task ID");
+        }
+        if (name == null || name.length() > 20) {
+            throw new IllegalArgumentException("Invalid name");
+        }
+        if (description == null || description.length() > 50) {
+            throw new IllegalArgumentException("Invalid description");
+        }
+        this.taskId = taskId;
+        this.name = name;
+        this.description = description;
+        this.searchName = SearchText.fold(name);
+        this.searchDescription = SearchText.fold(description);
+    }
+
+    // An immutable copy of this task with the given name and description, validated like the setters
+    Task readOnlyVersion(String name, String description) {
+        Task version = new Task(taskId, name, description);
+        version.readOnly = true;
+        return version;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        checkWritable();
+        applyName(name);
+    }
+
+    // Validate and set the name without the ownership check; used by TaskService.updateTask
+    void applyName(String name) {
+        if (name == null || name.length() > 20) {
+            throw new IllegalArgumentException("Invalid name");
+        }
+        this.name = name;
+        this.searchName = SearchText.fold(name);
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        checkWritable();
+        applyDescription(description);
+    }
+
+    // Validate and set the description without the ownership check; used by TaskService.updateTask
+    void applyDescription(String description) {
+        if (description == null || description.length() > 50) {
+            throw new IllegalArgumentException("Invalid description");
+        }
+        this.description = description;
+        this.searchDescription = SearchText.fold(description);
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new IllegalStateException("Task version is read-only");
+        }
+        if (owners > 0) {
+            throw new IllegalStateException("Task is held by a TaskService; use updateTask");
+        }
+    }
+
+    // Called by TaskService when it starts or stops holding this task
+    void claim() {
+        owners++;
+    }
+
+    void release() {
+        owners--;
+    }
+
+    // Folded (lowercased) name used for case-insensitive search
+    public String getSearchName() {
+        return searchName;
+    }
+
+    // Folded (lowercased) description used for case-insensitive search
+    public String getSearchDescription() {
+        return searchDescription;
+    }
+}
@@ -0,0 +1,29 @@
+package main;
+
+import java.util.Collection;
+
+/**
+ * A secondary index that TaskService keeps in step with every add, update and
+ * delete, and that its query planner may use to narrow a TaskQuery. Indexes
+ * only need to return a superset of the matches: every candidate is checked
+ * against the full query before it is returned.
+ */
+public interface TaskIndex {
+
+    // Name shown by TaskService.explain when the planner picks this index
+    String getName();
+
+    void add(Task task);
+
+    void remove(Task task);
+
+    /**
+     * Returns -1 when this index cannot serve any condition of the query, otherwise
+     * an upper bound on the number of candidates it would return. Once the count is
+     * known to exceed ceiling the index may stop counting and return any larger value.
+     */
+    int estimate(TaskQuery query, int ceiling);
+
+    // Ids of every task that may match the query; only called after a non-negative estimate
+    Collection<String> candidates(TaskQuery query);
+}
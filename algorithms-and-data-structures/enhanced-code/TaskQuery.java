@@ -0,0 +1,76 @@
+package main;
+
+/**
+ * A conjunction of conditions on a task's name and description, run with
+ * TaskService.query. Every condition is case-insensitive; conditions left
+ * unset match every task, so an empty query matches the whole store.
+ *
+ * TaskQuery query = TaskQuery.where().nameStartsWith("report").descriptionContains("monday");
+ */
+public class TaskQuery {
+
+    private String nameEquals;
+    private String namePrefix;
+    private String nameContains;
+    private String descriptionContains;
+
+    private TaskQuery() {
+    }
+
+    public static TaskQuery where() {
+        return new TaskQuery();
+    }
+
+    public TaskQuery nameEquals(String name) {
+        nameEquals = fold(name);
+        return this;
+    }
+
+    public TaskQuery nameStartsWith(String prefix) {
+        namePrefix = fold(prefix);
+        return this;
+    }
+
+    public TaskQuery nameContains(String text) {
+        nameContains = fold(text);
+        return this;
+    }
+
+    public TaskQuery descriptionContains(String text) {
+        descriptionContains = fold(text);
+        return this;
+    }
+
+    // The folded condition values, null when the condition is not set
+    public String getNameEquals() {
+        return nameEquals;
+    }
+
+    public String getNamePrefix() {
+        return namePrefix;
+    }
+
+    public String getNameContains() {
+        return nameContains;
+    }
+
+    public String getDescriptionContains() {
+        return descriptionContains;
+    }
+
+    // True when the task satisfies every condition that is set
+    public boolean matches(Task task) {
+        String name = task.getSearchName();
+        return (nameEquals == null || name.equals(nameEquals))
+            && (namePrefix == null || name.startsWith(namePrefix))
+            && (nameContains == null || name.contains(nameContains))
+            && (descriptionContains == null || task.getSearchDescription().contains(descriptionContains));
+    }
+
+    private static String fold(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Invalid query value");
+        }
+        return SearchText.fold(value);
+    }
+}
@@ -1,19 +1,69 @@
 package main;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 public class TaskService {
     private Map<String, Task> tasks = new HashMap<>();
 
+    // The same tasks ordered by taskId, so paged searches can resume after the last id returned
+    private final NavigableMap<String, Task> tasksById = new TreeMap<>();
+
+    // Trigram index over the lowercased name and description of every task
+    private final NGramIndex searchIndex = new NGramIndex();
+
+    // Receives every add, update and delete when enabled
+    private ChangeFeed<? super Task> changeFeed;
+
+    // Results of recent searchTasks calls; null until enableSearchCache is called
+    private SearchCache<Task> searchCache;
+
+    // Secondary indexes kept in step with every write and offered to the query planner
+    private final List<TaskIndex> indexes = new ArrayList<>();
+
+    // Scans smaller than this stay on the caller's thread even when a pool is configured
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+
+    // Pool for scanning large stores in parallel; null keeps every search sequential
+    private final ForkJoinPool searchPool;
+    private final int parallelThreshold;
+
+    public TaskService() {
+        this(null, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    // Search scans of at least parallelThreshold tasks are split across the given pool
+    public TaskService(ForkJoinPool searchPool, int parallelThreshold) {
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("Invalid parallel threshold");
+        }
+        this.searchPool = searchPool;
+        this.parallelThreshold = parallelThreshold;
+        indexes.add(new NameIndex());
+        indexes.add(new TextIndex());
+    }
+
     // Add a new task
     public void addTask(Task task) {
         if (tasks.containsKey(task.getTaskId())) {
             throw new IllegalArgumentException("Task ID must be unique");
         }
         tasks.put(task.getTaskId(), task);
+        tasksById.put(task.getTaskId(), task);
+        task.claim();
+        indexTask(task);
+        publishChange(ChangeEvent.Type.ADD, task);
     }
 
     // Delete a task by taskId
@@ -21,7 +71,9 @@ public class TaskService {
         if (!tasks.containsKey(taskId)) {
             throw new IllegalArgumentException("Task ID not found");
         }
-        tasks.remove(taskId);
+        tasksById.remove(taskId);
+        releaseTask(tasks.remove(taskId));
+        publishDelete(taskId);
     }
 
     // Update task fields by taskId (name and description)
@@ -30,23 +82,349 @@ public class TaskService {
             throw new IllegalArgumentException("Task ID not found");
         }
         Task task = tasks.get(taskId);
-        task.setName(name);
-        task.setDescription(description);
+        String oldName = task.getName();
+        String oldDescription = task.getDescription();
+        unindexTask(task);
+        try {
+            task.applyName(name);
+            task.applyDescription(description);
+        } finally {
+            // Re-index whatever the task holds now, even if validation failed part way
+            indexTask(task);
+            if (!task.getName().equals(oldName) || !task.getDescription().equals(oldDescription)) {
+                publishChange(ChangeEvent.Type.UPDATE, task);
+            }
+        }
     }
 
+    // -------------------- Enhancement: Batch Operations --------------------
+
+    // Add every task in the batch, or none of them if any item is invalid or a duplicate
+    public BatchResult addAll(Collection<Task> batch) {
+        BatchResult.Status[] statuses = new BatchResult.Status[batch.size()];
+        Set<String> seen = new HashSet<>(capacityFor(batch.size()));
+        boolean valid = true;
+        int i = 0;
+        for (Task task : batch) {
+            BatchResult.Status status;
+            if (task == null) {
+                status = BatchResult.Status.INVALID;
+            } else if (!seen.add(task.getTaskId())) {
+                status = BatchResult.Status.DUPLICATE_IN_BATCH;
+            } else if (tasks.containsKey(task.getTaskId())) {
+                status = BatchResult.Status.ALREADY_EXISTS;
+            } else {
+                status = BatchResult.Status.OK;
+            }
+            valid &= status == BatchResult.Status.OK;
+            statuses[i++] = status;
+        }
+        if (valid) {
+            ensureCapacity(batch.size());
+            for (Task task : batch) {
+                tasks.put(task.getTaskId(), task);
+                tasksById.put(task.getTaskId(), task);
+                task.claim();
+                indexTask(task);
+                publishChange(ChangeEvent.Type.ADD, task);
+            }
+        }
+        return new BatchResult(statuses);
+    }
+
+    // Delete every id in the batch, or none of them if any id is missing or repeated
+    public BatchResult deleteAll(Collection<String> taskIds) {
+        BatchResult.Status[] statuses = new BatchResult.Status[taskIds.size()];
+        Set<String> seen = new HashSet<>(capacityFor(taskIds.size()));
+        boolean valid = true;
+        int i = 0;
+        for (String taskId : taskIds) {
+            BatchResult.Status status;
+            if (taskId == null) {
+                status = BatchResult.Status.INVALID;
+            } else if (!seen.add(taskId)) {
+                status = BatchResult.Status.DUPLICATE_IN_BATCH;
+            } else if (!tasks.containsKey(taskId)) {
+                status = BatchResult.Status.NOT_FOUND;
+            } else {
+                status = BatchResult.Status.OK;
+            }
+            valid &= status == BatchResult.Status.OK;
+            statuses[i++] = status;
+        }
+        if (valid) {
+            for (String taskId : taskIds) {
+                tasksById.remove(taskId);
+                releaseTask(tasks.remove(taskId));
+                publishDelete(taskId);
+            }
+        }
+        return new BatchResult(statuses);
+    }
+
+    // Rebuild the map once at its final size when a batch is at least as large as
+    // the current store; smaller batches cost at most one internal resize anyway
+    private void ensureCapacity(int incoming) {
+        if (incoming >= tasks.size() && tasks.size() + incoming > 12) {
+            Map<String, Task> resized = new HashMap<>(capacityFor(tasks.size() + incoming));
+            resized.putAll(tasks);
+            tasks = resized;
+        }
+    }
+
+    // HashMap capacity that holds the given number of entries without resizing
+    private static int capacityFor(int entries) {
+        return (int) (entries / 0.75f) + 1;
+    }
+
+    // Unindex a removed task and hand its setters back to the caller
+    private void releaseTask(Task task) {
+        unindexTask(task);
+        task.release();
+    }
+
+    // The returned task is live; its setters throw while it is held here, so use updateTask
     public Task getTask(String taskId) {
         return tasks.get(taskId);
     }
 
     // -------------------- Enhancement: Search & Filtering --------------------
     public List<Task> searchTasks(String criteria) {
+        String query = SearchText.fold(criteria);
+        if (searchCache == null) {
+            return findTasks(query);
+        }
+        List<Task> results = searchCache.get(query);
+        if (results == null) {
+            results = findTasks(query);
+            searchCache.put(query, results);
+        }
+        return results;
+    }
+
+    private List<Task> findTasks(String query) {
+        Collection<String> candidates = searchIndex.candidates(query);
+        if (candidates == null) {
+            // Query is shorter than a trigram, fall back to a full scan
+            return scan(tasks.values(), query);
+        }
+        List<Task> matches = new ArrayList<>(candidates.size());
+        for (String taskId : candidates) {
+            matches.add(tasks.get(taskId));
+        }
+        return scan(matches, query);
+    }
+
+    private List<Task> scan(Collection<Task> source, String query) {
+        if (searchPool != null && source.size() >= parallelThreshold) {
+            // Same matches in the same order as the loop below, just split across the pool
+            return ParallelScan.filter(source, task -> matches(task, query), searchPool);
+        }
         List<Task> results = new ArrayList<>();
+        for (Task task : source) {
+            if (matches(task, query)) {
+                results.add(task);
+            }
+        }
+        return results;
+    }
+
+    private static boolean matches(Task task, String query) {
+        return task.getSearchName().contains(query) ||
+               task.getSearchDescription().contains(query);
+    }
+
+    // -------------------- Enhancement: Streaming & Paged Search --------------------
+
+    // Lazily stream matching tasks in taskId order; consume it before modifying the service
+    public Stream<Task> streamTasks(String criteria) {
+        return streamAfter(SearchText.fold(criteria), null);
+    }
+
+    // Return at most limit matches in taskId order, starting after the given page token
+    // (null for the first page). Only as many tasks are examined as the page needs.
+    public SearchPage<Task> searchTasks(String criteria, int limit, String pageToken) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Invalid page size");
+        }
+        Iterator<Task> matches = streamAfter(SearchText.fold(criteria), pageToken).iterator();
+        List<Task> page = new ArrayList<>(Math.min(limit, 64));
+        while (page.size() < limit && matches.hasNext()) {
+            page.add(matches.next());
+        }
+        String nextPageToken = matches.hasNext() ? page.get(page.size() - 1).getTaskId() : null;
+        return new SearchPage<>(page, nextPageToken);
+    }
+
+    private Stream<Task> streamAfter(String query, String afterId) {
+        int estimate = searchIndex.estimate(query);
+        if (estimate >= 0 && (long) estimate * 8 < tasksById.size()) {
+            // Selective query: sorting the few index candidates beats walking the store
+            return searchIndex.candidates(query).stream()
+                    .filter(taskId -> afterId == null || taskId.compareTo(afterId) > 0)
+                    .sorted()
+                    .map(tasks::get)
+                    .filter(task -> matches(task, query));
+        }
+        // Broad or short query: most tasks match, so walk the ordered store and stop early
+        NavigableMap<String, Task> remaining = afterId == null ? tasksById : tasksById.tailMap(afterId, false);
+        return remaining.values().stream().filter(task -> matches(task, query));
+    }
+
+    // -------------------- Enhancement: Secondary Indexes & Queries --------------------
+
+    // Register another secondary index, built over the tasks already stored
+    public void addIndex(TaskIndex index) {
         for (Task task : tasks.values()) {
-            if (task.getName().toLowerCase().contains(criteria.toLowerCase()) ||
-                task.getDescription().toLowerCase().contains(criteria.toLowerCase())) {
+            index.add(task);
+        }
+        indexes.add(index);
+    }
+
+    // Tasks matching every condition of the query, in taskId order
+    public List<Task> query(TaskQuery query) {
+        TaskIndex index = plan(query);
+        if (index == null) {
+            return scan(tasksById.values(), query);
+        }
+        List<Task> results = new ArrayList<>();
+        for (String taskId : index.candidates(query)) {
+            Task task = tasks.get(taskId);
+            if (query.matches(task)) {
+                results.add(task);
+            }
+        }
+        results.sort(Comparator.comparing(Task::getTaskId));
+        return results;
+    }
+
+    // Name of the index the planner would use for the query, or "scan"
+    public String explain(TaskQuery query) {
+        TaskIndex index = plan(query);
+        return index == null ? "scan" : index.getName();
+    }
+
+    // Pick the index with the fewest candidates; an index is only worth it when it
+    // narrows the store to under an eighth, otherwise a straight scan is cheaper
+    private TaskIndex plan(TaskQuery query) {
+        TaskIndex best = null;
+        int ceiling = tasks.size() / 8;
+        for (TaskIndex index : indexes) {
+            int estimate = index.estimate(query, ceiling);
+            if (estimate >= 0 && estimate <= ceiling && (best == null || estimate < ceiling)) {
+                best = index;
+                ceiling = estimate;
+            }
+        }
+        return best;
+    }
+
+    private List<Task> scan(Collection<Task> source, TaskQuery query) {
+        if (searchPool != null && source.size() >= parallelThreshold) {
+            return ParallelScan.filter(source, query::matches, searchPool);
+        }
+        List<Task> results = new ArrayList<>();
+        for (Task task : source) {
+            if (query.matches(task)) {
                 results.add(task);
             }
         }
         return results;
     }
+
+    private void indexTask(Task task) {
+        for (TaskIndex index : indexes) {
+            index.add(task);
+        }
+        invalidateCached(task);
+    }
+
+    private void unindexTask(Task task) {
+        for (TaskIndex index : indexes) {
+            index.remove(task);
+        }
+        invalidateCached(task);
+    }
+
+    // -------------------- Enhancement: Change Feed --------------------
+
+    // Publish every later add, update and delete to the feed, which may be shared with other services
+    public void enableChangeFeed(ChangeFeed<? super Task> feed) {
+        changeFeed = feed;
+    }
+
+    // Tasks are updated in place, so events carry a read-only copy of the task as it is now
+    private void publishChange(ChangeEvent.Type type, Task task) {
+        if (changeFeed != null) {
+            changeFeed.publish("TaskService", type, task.getTaskId(),
+                    task.readOnlyVersion(task.getName(), task.getDescription()));
+        }
+    }
+
+    private void publishDelete(String taskId) {
+        if (changeFeed != null) {
+            changeFeed.publish("TaskService", ChangeEvent.Type.DELETE, taskId, null);
+        }
+    }
+
+    // -------------------- Enhancement: Search Result Cache --------------------
+
+    // Cache up to maxEntries searchTasks results, each for at most ttlMillis (0 for no limit)
+    public void enableSearchCache(int maxEntries, long ttlMillis) {
+        searchCache = new SearchCache<>(maxEntries, ttlMillis);
+    }
+
+    public CacheStats getSearchCacheStats() {
+        if (searchCache == null) {
+            throw new IllegalStateException("Search cache is not enabled");
+        }
+        return searchCache.stats();
+    }
+
+    // Drop only the cached searches this task's text can satisfy
+    private void invalidateCached(Task task) {
+        if (searchCache != null) {
+            searchCache.invalidate(task.getSearchName(), task.getSearchDescription());
+        }
+    }
+
+    // Serves name and description substring conditions from the trigram index
+    private class TextIndex implements TaskIndex {
+
+        @Override
+        public String getName() {
+            return "trigram";
+        }
+
+        @Override
+        public void add(Task task) {
+            searchIndex.add(task.getTaskId(), task.getSearchName(), task.getSearchDescription());
+        }
+
+        @Override
+        public void remove(Task task) {
+            searchIndex.remove(task.getTaskId(), task.getSearchName(), task.getSearchDescription());
+        }
+
+        @Override
+        public int estimate(TaskQuery query, int ceiling) {
+            String text = longestText(query);
+            return text == null ? -1 : searchIndex.estimate(text);
+        }
+
+        @Override
+        public Collection<String> candidates(TaskQuery query) {
+            return searchIndex.candidates(longestText(query));
+        }
+
+        // The longer substring condition has the rarer trigrams
+        private String longestText(TaskQuery query) {
+            String name = query.getNameContains();
+            String description = query.getDescriptionContains();
+            if (name == null || (description != null && description.length() > name.length())) {
+                return description;
+            }
+            return name;
+        }
+    }
 }
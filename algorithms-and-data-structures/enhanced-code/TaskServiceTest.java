@@ -4,7 +4,14 @@ import main.Task;
 import main.TaskService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import main.BatchResult;
+import main.CacheStats;
+import main.SearchPage;
+import main.TaskQuery;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TaskServiceTest {
@@ -45,4 +52,241 @@ public class TaskServiceTest {
         List<Task> results = taskService.searchTasks("nonexistent");
         assertTrue(results.isEmpty());
     }
+
+    @Test
+    void testSearchTasksShortQueryScans() {
+        List<Task> results = taskService.searchTasks("ee");
+        assertEquals(1, results.size());
+        assertEquals("3", results.get(0).getTaskId());
+    }
+
+    @Test
+    void testSearchTasksRequiresContiguousMatch() {
+        // "Write Report" holds the trigrams of "port rep" but not the substring
+        assertTrue(taskService.searchTasks("report write").isEmpty());
+    }
+
+    @Test
+    void testSearchTasksReflectsUpdate() {
+        taskService.updateTask("1", "Budget Draft", "Prepare quarterly budget");
+        assertTrue(taskService.searchTasks("report").isEmpty());
+        List<Task> results = taskService.searchTasks("QUARTERLY");
+        assertEquals(1, results.size());
+        assertEquals("1", results.get(0).getTaskId());
+    }
+
+    @Test
+    void testSearchTasksReflectsDelete() {
+        taskService.deleteTask("2");
+        assertTrue(taskService.searchTasks("review").isEmpty());
+    }
+
+    @Test
+    void testStoredTaskSettersRejectDirectChanges() {
+        Task task = taskService.getTask("1");
+        assertThrows(IllegalStateException.class, () -> task.setName("Budget Draft"));
+        assertThrows(IllegalStateException.class, () -> task.setDescription("Prepare quarterly budget"));
+        assertEquals("Write Report", task.getName());
+        assertEquals(1, taskService.searchTasks("report").size());
+    }
+
+    @Test
+    void testDeletedTaskSettersWorkAgain() {
+        Task task = taskService.getTask("2");
+        taskService.deleteTask("2");
+        task.setName("Pairing");
+        assertEquals("Pairing", task.getName());
+        assertTrue(taskService.searchTasks("pairing").isEmpty());
+    }
+
+    @Test
+    void testAddAllAppliesWholeBatch() {
+        BatchResult result = taskService.addAll(Arrays.asList(
+            new Task("4", "Plan Sprint", "Pick stories for the next sprint"),
+            new Task("5", "Deploy", "Ship the release to production")));
+
+        assertTrue(result.isApplied());
+        assertNotNull(taskService.getTask("4"));
+        assertEquals(1, taskService.searchTasks("production").size());
+    }
+
+    @Test
+    void testAddAllRejectsWholeBatchOnDuplicates() {
+        BatchResult result = taskService.addAll(Arrays.asList(
+            new Task("4", "Plan Sprint", "Pick stories for the next sprint"),
+            new Task("1", "Write Report", "Already stored"),
+            new Task("4", "Plan Again", "Repeated in the batch")));
+
+        assertFalse(result.isApplied());
+        assertEquals(2, result.getFailureCount());
+        assertEquals(BatchResult.Status.OK, result.getStatus(0));
+        assertEquals(BatchResult.Status.ALREADY_EXISTS, result.getStatus(1));
+        assertEquals(BatchResult.Status.DUPLICATE_IN_BATCH, result.getStatus(2));
+        assertNull(taskService.getTask("4"));
+    }
+
+    @Test
+    void testDeleteAllRejectsWholeBatchOnMissingId() {
+        BatchResult result = taskService.deleteAll(Arrays.asList("1", "99"));
+
+        assertFalse(result.isApplied());
+        assertEquals(BatchResult.Status.NOT_FOUND, result.getStatus(1));
+        assertNotNull(taskService.getTask("1"));
+
+        assertTrue(taskService.deleteAll(Arrays.asList("1", "2")).isApplied());
+        assertNull(taskService.getTask("1"));
+        assertTrue(taskService.searchTasks("review").isEmpty());
+    }
+
+    @Test
+    void testSearchTasksPagesInTaskIdOrder() {
+        SearchPage<Task> first = taskService.searchTasks("e", 2, null);
+        assertEquals(2, first.getResults().size());
+        assertEquals("1", first.getResults().get(0).getTaskId());
+        assertEquals("2", first.getResults().get(1).getTaskId());
+        assertTrue(first.hasNextPage());
+
+        SearchPage<Task> second = taskService.searchTasks("e", 2, first.getNextPageToken());
+        assertEquals(1, second.getResults().size());
+        assertEquals("3", second.getResults().get(0).getTaskId());
+        assertNull(second.getNextPageToken());
+    }
+
+    @Test
+    void testSearchTasksPagesThroughIndexedCandidates() {
+        for (int i = 10; i < 40; i++) {
+            taskService.addTask(new Task(String.valueOf(i), "Filler " + i, "Nothing to see"));
+        }
+        taskService.addTask(new Task("5", "Sprint Review", "Demo the sprint"));
+
+        SearchPage<Task> first = taskService.searchTasks("REVIEW", 1, null);
+        assertEquals("2", first.getResults().get(0).getTaskId());
+        SearchPage<Task> second = taskService.searchTasks("REVIEW", 1, first.getNextPageToken());
+        assertEquals("5", second.getResults().get(0).getTaskId());
+        assertFalse(second.hasNextPage());
+    }
+
+    @Test
+    void testStreamTasksIsLazyAndOrdered() {
+        List<String> ids = taskService.streamTasks("e").limit(2)
+            .map(Task::getTaskId).collect(Collectors.toList());
+        assertEquals(Arrays.asList("1", "2"), ids);
+    }
+
+    @Test
+    void testSearchTasksRejectsInvalidPageSize() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasks("e", 0, null));
+    }
+
+    @Test
+    void testParallelSearchMatchesSequentialOrder() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TaskService sequential = new TaskService();
+            TaskService parallel = new TaskService(pool, 1);
+            for (int i = 0; i < 10000; i++) {
+                String name = (i % 3 == 0) ? "Report " + i : "Task " + i;
+                sequential.addTask(new Task("P" + i, name, "Filler"));
+                parallel.addTask(new Task("P" + i, name, "Filler"));
+            }
+            List<String> expected = sequential.searchTasks("re").stream()
+                .map(Task::getTaskId).collect(Collectors.toList());
+            List<String> actual = parallel.searchTasks("re").stream()
+                .map(Task::getTaskId).collect(Collectors.toList());
+            assertEquals(3334, actual.size());
+            assertEquals(expected, actual);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testQueryNameEqualsAndPrefix() {
+        taskService.addTask(new Task("4", "Write Code", "Implement the feature"));
+
+        List<Task> exact = taskService.query(TaskQuery.where().nameEquals("write report"));
+        assertEquals(1, exact.size());
+        assertEquals("1", exact.get(0).getTaskId());
+
+        List<Task> prefix = taskService.query(TaskQuery.where().nameStartsWith("Write"));
+        assertEquals(2, prefix.size());
+        assertEquals("1", prefix.get(0).getTaskId());
+        assertEquals("4", prefix.get(1).getTaskId());
+    }
+
+    @Test
+    void testQueryCombinesConditions() {
+        taskService.addTask(new Task("4", "Write Code", "Implement the feature by Monday"));
+
+        List<Task> results = taskService.query(
+            TaskQuery.where().nameStartsWith("write").descriptionContains("monday"));
+        assertEquals(2, results.size());
+        assertTrue(taskService.query(
+            TaskQuery.where().nameStartsWith("write").descriptionContains("friday")).isEmpty());
+    }
+
+    @Test
+    void testQueryPlannerPicksMostSelectiveIndex() {
+        for (int i = 10; i < 100; i++) {
+            taskService.addTask(new Task(String.valueOf(i), "Filler " + i, "Routine chores"));
+        }
+        assertEquals("name", taskService.explain(TaskQuery.where().nameEquals("Meeting")));
+        assertEquals("trigram", taskService.explain(
+            TaskQuery.where().nameStartsWith("Filler").descriptionContains("pull requests")));
+        assertEquals("scan", taskService.explain(TaskQuery.where().descriptionContains("chores")));
+        assertEquals(90, taskService.query(TaskQuery.where().descriptionContains("chores")).size());
+    }
+
+    @Test
+    void testQueryIndexesFollowUpdates() {
+        taskService.updateTask("3", "Standup", "Daily standup");
+
+        assertTrue(taskService.query(TaskQuery.where().nameEquals("Meeting")).isEmpty());
+        assertEquals("3", taskService.query(TaskQuery.where().nameEquals("standup")).get(0).getTaskId());
+    }
+
+    @Test
+    void testSearchCacheInvalidatesOnlyAffectedQueries() {
+        taskService.enableSearchCache(16, 0);
+        assertEquals(1, taskService.searchTasks("report").size());
+        assertEquals(1, taskService.searchTasks("meeting").size());
+
+        taskService.updateTask("3", "Standup", "Daily standup");
+
+        assertEquals(1, taskService.searchTasks("report").size());
+        assertTrue(taskService.searchTasks("meeting").isEmpty());
+        CacheStats stats = taskService.getSearchCacheStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(3, stats.getMissCount());
+        assertEquals(1, stats.getInvalidationCount());
+    }
+
+    @Test
+    void testSearchCacheSeesNewTasks() {
+        taskService.enableSearchCache(16, 0);
+        assertEquals(2, taskService.searchTasks("Re").size());
+
+        taskService.addTask(new Task("4", "Retro", "Sprint retrospective"));
+        assertEquals(3, taskService.searchTasks("re").size());
+        taskService.deleteTask("4");
+        assertEquals(2, taskService.searchTasks("re").size());
+    }
+
+    @Test
+    void testSearchCacheEvictsLeastRecentlyUsed() {
+        taskService.enableSearchCache(1, 0);
+        taskService.searchTasks("report");
+        taskService.searchTasks("meeting");
+        taskService.searchTasks("report");
+
+        CacheStats stats = taskService.getSearchCacheStats();
+        assertEquals(0, stats.getHitCount());
+        assertEquals(2, stats.getEvictionCount());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void testSearchCacheStatsRequireCache() {
+        assertThrows(IllegalStateException.class, () -> taskService.getSearchCacheStats());
+    }
 }
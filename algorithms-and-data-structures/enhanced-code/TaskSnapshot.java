@@ -0,0 +1,49 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A consistent, point-in-time view of a SnapshotTaskService. Nothing a writer
+ * does after the snapshot was taken is visible through it, and every task it
+ * returns is a read-only version whose name and description belong together.
+ */
+public class TaskSnapshot {
+
+    private final PersistentTaskMap tasks;
+    private final long version;
+
+    TaskSnapshot(PersistentTaskMap tasks, long version) {
+        this.tasks = tasks;
+        this.version = version;
+    }
+
+    // Number of writes applied before this snapshot was published
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    public Task getTask(String taskId) {
+        return taskId == null ? null : tasks.get(taskId);
+    }
+
+    public List<Task> searchTasks(String criteria) {
+        String query = SearchText.fold(criteria);
+        List<Task> results = new ArrayList<>();
+        tasks.forEach(task -> {
+            if (task.getSearchName().contains(query) ||
+                task.getSearchDescription().contains(query)) {
+                results.add(task);
+            }
+        });
+        return results;
+    }
+
+    PersistentTaskMap tasks() {
+        return tasks;
+    }
+}
@@ -0,0 +1,160 @@
+package main;
+
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel in the style of the classic kernel timer wheel.
+ * Level 0 has one slot per tick for the next 64 ticks; each level above covers
+ * 64 times the span of the one below. Scheduling and cancelling are O(1), and
+ * an entry is moved down a level at most once per level before it fires, so
+ * nothing ever scans the full set of pending timers. Not thread-safe.
+ */
+final class TimingWheel<V> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+
+    // A scheduled value; kept by the caller so it can be cancelled in O(1)
+    static final class Timer<V> {
+        final long deadline;
+        final V value;
+        Timer<V> prev;
+        Timer<V> next;
+        Timer<V>[] slotOwner;
+        int slot;
+
+        Timer(long deadline, V value) {
+            this.deadline = deadline;
+            this.value = value;
+        }
+    }
+
+    private final Timer<V>[][] levels;
+
+    // The next tick to be processed
+    private long currentTick;
+    private int pending;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long startTick) {
+        levels = (Timer<V>[][]) new Timer<?>[LEVELS][SLOTS];
+        currentTick = startTick;
+    }
+
+    // Schedule value to fire at deadlineTick (or on the next advance if that has passed)
+    Timer<V> schedule(long deadlineTick, V value) {
+        Timer<V> timer = new Timer<>(deadlineTick, value);
+        insert(timer);
+        pending++;
+        return timer;
+    }
+
+    void cancel(Timer<V> timer) {
+        if (timer.slotOwner != null) {
+            unlink(timer);
+            pending--;
+        }
+    }
+
+    int size() {
+        return pending;
+    }
+
+    // Process every tick up to and including nowTick, adding fired values to out
+    void advance(long nowTick, List<V> out) {
+        while (currentTick <= nowTick) {
+            int index = (int) (currentTick & MASK);
+            if (index == 0) {
+                // Level 0 has wrapped: pull the next slot of each level above down a level
+                for (int level = 1; level < LEVELS; level++) {
+                    int slot = (int) ((currentTick >>> (level * SLOT_BITS)) & MASK);
+                    cascade(levels[level], slot);
+                    if (slot != 0) {
+                        break;
+                    }
+                }
+            }
+            Timer<V> timer = detach(levels[0], index);
+            currentTick++;
+            while (timer != null) {
+                Timer<V> next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                if (timer.deadline >= currentTick) {
+                    // Deadline was beyond the wheel's reach when scheduled, go around again
+                    insert(timer);
+                } else {
+                    pending--;
+                    out.add(timer.value);
+                }
+                timer = next;
+            }
+        }
+    }
+
+    private void insert(Timer<V> timer) {
+        long delta = timer.deadline - currentTick;
+        if (delta < SLOTS) {
+            long tick = delta < 0 ? currentTick : timer.deadline;
+            link(levels[0], (int) (tick & MASK), timer);
+            return;
+        }
+        for (int level = 1; level < LEVELS; level++) {
+            if (delta < 1L << ((level + 1) * SLOT_BITS) || level == LEVELS - 1) {
+                long tick = delta < 1L << ((level + 1) * SLOT_BITS)
+                        ? timer.deadline
+                        : currentTick + (1L << (LEVELS * SLOT_BITS)) - 1;
+                link(levels[level], (int) ((tick >>> (level * SLOT_BITS)) & MASK), timer);
+                return;
+            }
+        }
+    }
+
+    private void cascade(Timer<V>[] slots, int slot) {
+        Timer<V> timer = detach(slots, slot);
+        while (timer != null) {
+            Timer<V> next = timer.next;
+            timer.prev = null;
+            timer.next = null;
+            insert(timer);
+            timer = next;
+        }
+    }
+
+    private static <V> void link(Timer<V>[] slots, int slot, Timer<V> timer) {
+        Timer<V> head = slots[slot];
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        slots[slot] = timer;
+        timer.slotOwner = slots;
+        timer.slot = slot;
+    }
+
+    private static <V> void unlink(Timer<V> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            timer.slotOwner[timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.slotOwner = null;
+    }
+
+    // Remove and return the whole list in a slot
+    private static <V> Timer<V> detach(Timer<V>[] slots, int slot) {
+        Timer<V> head = slots[slot];
+        slots[slot] = null;
+        for (Timer<V> timer = head; timer != null; timer = timer.next) {
+            timer.slotOwner = null;
+        }
+        return head;
+    }
+}
@@ -0,0 +1,100 @@
+package benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import main.Appointment;
+import main.AppointmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for AppointmentService add, delete, get, update and search.
+ *
+ * Throughput and SampleTime (latency percentiles) are both reported; run with
+ * {@code -prof gc} to get the allocation rate per operation.
+ * Add and delete are measured as one add-then-delete round trip so the
+ * store stays at the configured size for the whole measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class AppointmentServiceBenchmark {
+
+    // Appointments start one day out so they never fall into the past during a run
+    private static final long ONE_DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    // 10M is run separately with a 16 GB fork heap; see README.md
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"0.5", "1.0"})
+    public double hitRatio;
+
+    @Param({"2", "4", "8"})
+    public int queryLength;
+
+    private AppointmentService service;
+    private String[] lookupIds;
+    private String[] existingIds;
+    private String[] queries;
+    private long firstTime;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        service = new AppointmentService();
+        firstTime = System.currentTimeMillis() + ONE_DAY_MILLIS;
+        for (int i = 0; i < size; i++) {
+            service.addAppointment(new Appointment(BenchmarkData.id('A', i), firstTime + i * 1000L,
+                    BenchmarkData.phrase(random, 50)));
+        }
+        lookupIds = BenchmarkData.lookupIds(random, 'A', size, hitRatio);
+        existingIds = BenchmarkData.lookupIds(random, 'A', size, 1.0);
+        queries = BenchmarkData.queries(random, queryLength, hitRatio);
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (BenchmarkData.POOL_SIZE - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public Appointment get() {
+        return service.getAppointment(lookupIds[next()]);
+    }
+
+    @Benchmark
+    public void addThenDelete() {
+        int index = next();
+        String id = BenchmarkData.id('N', index);
+        service.addAppointment(new Appointment(id, firstTime + index, "Added and removed by the benchmark"));
+        service.deleteAppointment(id);
+    }
+
+    @Benchmark
+    public void update() {
+        int index = next();
+        service.updateAppointment(existingIds[index],
+                (index & 1) == 0 ? "Rescheduled review" : "Updated by the benchmark");
+    }
+
+    @Benchmark
+    public List<Appointment> search() {
+        return service.searchAppointments(queries[next()]);
+    }
+}
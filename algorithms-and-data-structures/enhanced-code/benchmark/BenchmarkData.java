@@ -0,0 +1,121 @@
+package benchmark;
+
+import java.util.Random;
+
+/**
+ * Deterministic data generator shared by the service benchmarks.
+ * Every benchmark draws its ids, names and queries from here so the
+ * datasets are identical from run to run and comparable across changes.
+ */
+public final class BenchmarkData {
+
+    private static final String[] WORDS = {
+        "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel",
+        "india", "juliet", "kilo", "lima", "mike", "november", "oscar", "papa",
+        "quebec", "romeo", "sierra", "tango", "uniform", "victor", "whiskey", "yankee"
+    };
+
+    // Number of precomputed keys/queries each benchmark cycles through
+    public static final int POOL_SIZE = 1 << 16;
+
+    private BenchmarkData() {
+    }
+
+    public static Random random() {
+        return new Random(42);
+    }
+
+    // Ids are at most 10 characters: one prefix letter plus up to 8 digits
+    public static String id(char prefix, int index) {
+        return prefix + Integer.toString(index);
+    }
+
+    // A word-based phrase no longer than maxLength
+    public static String phrase(Random random, int maxLength) {
+        StringBuilder text = new StringBuilder();
+        while (true) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            int needed = text.length() == 0 ? word.length() : word.length() + 1;
+            if (text.length() + needed > maxLength) {
+                return text.toString();
+            }
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(word);
+        }
+    }
+
+    // Ten random digits
+    public static String phone(Random random) {
+        StringBuilder digits = new StringBuilder(10);
+        for (int i = 0; i < 10; i++) {
+            digits.append((char) ('0' + random.nextInt(10)));
+        }
+        return digits.toString();
+    }
+
+    /**
+     * Ids to look up: roughly hitRatio of them exist in a store of the given
+     * size, the rest use an index past the end of the store and miss.
+     */
+    public static String[] lookupIds(Random random, char prefix, int size, double hitRatio) {
+        String[] ids = new String[POOL_SIZE];
+        for (int i = 0; i < ids.length; i++) {
+            int index = random.nextDouble() < hitRatio ? random.nextInt(size) : size + random.nextInt(size);
+            ids[i] = id(prefix, index);
+        }
+        return ids;
+    }
+
+    /**
+     * Name prefixes of the given length: roughly hitRatio of them start a name
+     * built with phrase(random, maxNameLength), the rest are random letters
+     * that are very unlikely to start one.
+     */
+    public static String[] namePrefixes(Random random, int length, int maxNameLength, double hitRatio) {
+        String[] prefixes = new String[POOL_SIZE];
+        for (int i = 0; i < prefixes.length; i++) {
+            if (random.nextDouble() < hitRatio) {
+                String name = phrase(random, maxNameLength);
+                while (name.length() < length) {
+                    name = phrase(random, maxNameLength);
+                }
+                prefixes[i] = name.substring(0, length);
+            } else {
+                StringBuilder letters = new StringBuilder(length);
+                for (int j = 0; j < length; j++) {
+                    letters.append((char) ('z' - random.nextInt(4)));
+                }
+                prefixes[i] = letters.toString();
+            }
+        }
+        return prefixes;
+    }
+
+    /**
+     * Search strings of the given length: roughly hitRatio of them are cut from
+     * the vocabulary used to build the data, the rest are random letters that
+     * are very unlikely to occur.
+     */
+    public static String[] queries(Random random, int length, double hitRatio) {
+        String[] queries = new String[POOL_SIZE];
+        for (int i = 0; i < queries.length; i++) {
+            if (random.nextDouble() < hitRatio) {
+                String source = phrase(random, 50);
+                while (source.length() < length) {
+                    source = source + ' ' + phrase(random, 50);
+                }
+                int start = random.nextInt(source.length() - length + 1);
+                queries[i] = source.substring(start, start + length);
+            } else {
+                StringBuilder letters = new StringBuilder(length);
+                for (int j = 0; j < length; j++) {
+                    letters.append((char) ('z' - random.nextInt(4)));
+                }
+                queries[i] = letters.toString();
+            }
+        }
+        return queries;
+    }
+}
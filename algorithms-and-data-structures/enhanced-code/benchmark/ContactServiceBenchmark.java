@@ -0,0 +1,112 @@
+package benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import main.Contact;
+import main.ContactService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for ContactService add, delete, get, update, phone lookup and
+ * name-prefix search.
+ *
+ * Throughput and SampleTime (latency percentiles) are both reported; run with
+ * {@code -prof gc} to get the allocation rate per operation.
+ * Add and delete are measured as one add-then-delete round trip so the
+ * store stays at the configured size for the whole measurement.
+ * queryLength is the length of the name prefixes searched for; phone lookups
+ * hit a stored number at the configured hit ratio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ContactServiceBenchmark {
+
+    // 10M is run separately with a 16 GB fork heap; see README.md
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"0.5", "1.0"})
+    public double hitRatio;
+
+    @Param({"2", "4", "8"})
+    public int queryLength;
+
+    private ContactService service;
+    private String[] lookupIds;
+    private String[] existingIds;
+    private String[] phones;
+    private String[] prefixes;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        service = new ContactService();
+        long[] storedPhones = new long[size];
+        for (int i = 0; i < size; i++) {
+            Contact contact = new Contact(BenchmarkData.id('C', i), BenchmarkData.phrase(random, 10),
+                    BenchmarkData.phrase(random, 10), BenchmarkData.phone(random), BenchmarkData.phrase(random, 30));
+            storedPhones[i] = contact.getPhoneNumber();
+            service.addContact(contact);
+        }
+        lookupIds = BenchmarkData.lookupIds(random, 'C', size, hitRatio);
+        existingIds = BenchmarkData.lookupIds(random, 'C', size, 1.0);
+        // Misses are fresh random numbers; with at most 10M stored they almost never collide
+        phones = new String[BenchmarkData.POOL_SIZE];
+        for (int i = 0; i < phones.length; i++) {
+            phones[i] = random.nextDouble() < hitRatio
+                    ? Contact.formatPhone(storedPhones[random.nextInt(size)]) : BenchmarkData.phone(random);
+        }
+        prefixes = BenchmarkData.namePrefixes(random, queryLength, 10, hitRatio);
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (BenchmarkData.POOL_SIZE - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public Contact get() {
+        return service.getContactById(lookupIds[next()]);
+    }
+
+    @Benchmark
+    public void addThenDelete() {
+        String id = BenchmarkData.id('N', next());
+        service.addContact(new Contact(id, "Bench", "Mark", "5555555555", "1 Benchmark Way"));
+        service.deleteContact(id);
+    }
+
+    @Benchmark
+    public void update() {
+        int index = next();
+        service.updateContact(existingIds[index], "Updated", "Contact",
+                (index & 1) == 0 ? "1234567890" : "0987654321", "2 Benchmark Way");
+    }
+
+    @Benchmark
+    public List<Contact> byPhone() {
+        return service.getContactsByPhone(phones[next()]);
+    }
+
+    @Benchmark
+    public List<Contact> byNamePrefix() {
+        return service.searchContactsByNamePrefix(prefixes[next()], 10);
+    }
+}
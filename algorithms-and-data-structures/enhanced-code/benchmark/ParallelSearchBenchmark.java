@@ -0,0 +1,90 @@
+package benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import main.Appointment;
+import main.AppointmentService;
+import main.Task;
+import main.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for unindexed searches split across a ForkJoinPool.
+ *
+ * Queries are two characters long so the trigram index cannot help and every
+ * search is a full scan. {@code threads = 1} is the sequential baseline; the
+ * other values show the speedup from each extra worker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ParallelSearchBenchmark {
+
+    // 10M, where the speedup matters most, is run separately with a 16 GB fork heap; see README.md
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private ForkJoinPool pool;
+    private TaskService tasks;
+    private AppointmentService appointments;
+    private String[] queries;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        pool = threads == 1 ? null : new ForkJoinPool(threads);
+        tasks = new TaskService(pool, TaskService.DEFAULT_PARALLEL_THRESHOLD);
+        appointments = new AppointmentService(pool, AppointmentService.DEFAULT_PARALLEL_THRESHOLD);
+        long future = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(365);
+        for (int i = 0; i < size; i++) {
+            tasks.addTask(new Task(BenchmarkData.id('T', i), BenchmarkData.phrase(random, 20),
+                    BenchmarkData.phrase(random, 50)));
+            appointments.addAppointment(new Appointment(BenchmarkData.id('A', i),
+                    future + i * 1000L, BenchmarkData.phrase(random, 50)));
+        }
+        queries = BenchmarkData.queries(random, 2, 1.0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (BenchmarkData.POOL_SIZE - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public List<Task> searchTasks() {
+        return tasks.searchTasks(queries[next()]);
+    }
+
+    @Benchmark
+    public List<Appointment> searchAppointments() {
+        return appointments.searchAppointments(queries[next()]);
+    }
+}
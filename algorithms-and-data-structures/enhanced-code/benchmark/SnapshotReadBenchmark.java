@@ -0,0 +1,117 @@
+package benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import main.SnapshotTaskService;
+import main.Task;
+import main.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of concurrent reads against a steady stream of writes.
+ *
+ * The "mixed" group runs 19 threads calling getTask next to 1 thread calling
+ * updateTask, and JMH reports read and write throughput separately, so a fast
+ * writer cannot hide slow reads in a blended number.
+ * "locked" is TaskService behind a ReentrantReadWriteLock, the simplest safe way
+ * to share it; "snapshot" is SnapshotTaskService, whose reads take no lock.
+ * Compare the read throughput of the two at each size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SnapshotReadBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"locked", "snapshot"})
+    public String mode;
+
+    private TaskService lockedService;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private SnapshotTaskService snapshotService;
+    private String[] existingIds;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        if ("locked".equals(mode)) {
+            lockedService = new TaskService();
+        } else {
+            snapshotService = new SnapshotTaskService();
+        }
+        for (int i = 0; i < size; i++) {
+            Task task = new Task(BenchmarkData.id('T', i), BenchmarkData.phrase(random, 20),
+                    BenchmarkData.phrase(random, 50));
+            if (lockedService != null) {
+                lockedService.addTask(task);
+            } else {
+                snapshotService.addTask(task);
+            }
+        }
+        existingIds = BenchmarkData.lookupIds(random, 'T', size, 1.0);
+    }
+
+    // Per-thread position in the id pool
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index;
+
+        int next() {
+            index = (index + 1) & (BenchmarkData.POOL_SIZE - 1);
+            return index;
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(19)
+    public Task read(Cursor cursor) {
+        String id = existingIds[cursor.next()];
+        if (lockedService != null) {
+            lock.readLock().lock();
+            try {
+                return lockedService.getTask(id);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return snapshotService.getTask(id);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void write(Cursor cursor) {
+        String id = existingIds[cursor.next()];
+        if (lockedService != null) {
+            lock.writeLock().lock();
+            try {
+                lockedService.updateTask(id, "Renamed task", "Updated by the benchmark");
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        snapshotService.updateTask(id, "Renamed task", "Updated by the benchmark");
+    }
+}
@@ -0,0 +1,94 @@
+package benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import main.Task;
+import main.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for TaskService add, delete, get, update and search.
+ *
+ * Throughput and SampleTime (latency percentiles) are both reported; run with
+ * {@code -prof gc} to get the allocation rate per operation.
+ * Add and delete are measured as one add-then-delete round trip so the
+ * store stays at the configured size for the whole measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TaskServiceBenchmark {
+
+    // 10M is run separately with a 16 GB fork heap; see README.md
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"0.5", "1.0"})
+    public double hitRatio;
+
+    @Param({"2", "4", "8"})
+    public int queryLength;
+
+    private TaskService service;
+    private String[] lookupIds;
+    private String[] existingIds;
+    private String[] queries;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        service = new TaskService();
+        for (int i = 0; i < size; i++) {
+            service.addTask(new Task(BenchmarkData.id('T', i), BenchmarkData.phrase(random, 20),
+                    BenchmarkData.phrase(random, 50)));
+        }
+        lookupIds = BenchmarkData.lookupIds(random, 'T', size, hitRatio);
+        existingIds = BenchmarkData.lookupIds(random, 'T', size, 1.0);
+        queries = BenchmarkData.queries(random, queryLength, hitRatio);
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (BenchmarkData.POOL_SIZE - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public Task get() {
+        return service.getTask(lookupIds[next()]);
+    }
+
+    @Benchmark
+    public void addThenDelete() {
+        String id = BenchmarkData.id('N', next());
+        service.addTask(new Task(id, "Benchmark task", "Added and removed by the benchmark"));
+        service.deleteTask(id);
+    }
+
+    @Benchmark
+    public void update() {
+        int index = next();
+        service.updateTask(existingIds[index], (index & 1) == 0 ? "Renamed task" : "Other name",
+                "Updated by the benchmark");
+    }
+
+    @Benchmark
+    public List<Task> search() {
+        return service.searchTasks(queries[next()]);
+    }
+}
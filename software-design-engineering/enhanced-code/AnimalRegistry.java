@@ -0,0 +1,226 @@
+package RescueAnimals.Src;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory registry of rescue animals with secondary indexes.
+ * Replaces the per-species lists in Driver so lookups by name, status
+ * and species type do not scan every animal.
+ *
+ * Animals report name and status changes back to the registry that
+ * holds them, so the indexes stay correct after setName/setStatus.
+ * All indexes are concurrent and every bucket keeps intake order, so
+ * staff on many threads can reserve animals without a global lock.
+ */
+public class AnimalRegistry {
+
+    // Orders every bucket by intake
+    private static final Comparator<RescueAnimal> INTAKE_ORDER =
+            Comparator.comparingLong(RescueAnimal::getRegistrySequence);
+
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    // Every registered animal, in intake order
+    private final NavigableSet<RescueAnimal> animals = new ConcurrentSkipListSet<>(INTAKE_ORDER);
+
+    // Secondary indexes
+    private final Map<String, NavigableSet<RescueAnimal>> byName = new ConcurrentHashMap<>();
+    private final Map<ReservationStatus, NavigableSet<RescueAnimal>> byStatus = new ConcurrentHashMap<>();
+    private final Map<Class<?>, NavigableSet<RescueAnimal>> byType = new ConcurrentHashMap<>();
+
+    /**
+     * Adds an animal to the registry and its indexes.
+     * @param animal The animal to register.
+     */
+    public void add(RescueAnimal animal) {
+        if (animal == null) {
+            throw new IllegalArgumentException("Animal must not be null");
+        }
+        synchronized (animal) {
+            if (animal.getRegistry() != null) {
+                throw new IllegalArgumentException("Animal is already registered");
+            }
+            animal.setRegistry(this, nextSequence.getAndIncrement());
+        }
+        animals.add(animal);
+        addTo(byName, animal.getName(), animal);
+        addTo(byType, animal.getClass(), animal);
+        statusChanged(animal);
+    }
+
+    /**
+     * Removes an animal from the registry and its indexes.
+     * @param animal The animal to remove.
+     * @return true if the animal was registered here.
+     */
+    public boolean remove(RescueAnimal animal) {
+        if (animal == null) {
+            return false;
+        }
+        synchronized (animal) {
+            if (animal.getRegistry() != this) {
+                return false;
+            }
+            animal.setRegistry(null, animal.getRegistrySequence());
+        }
+        animals.remove(animal);
+        removeFrom(byName, animal.getName(), animal);
+        removeFrom(byType, animal.getClass(), animal);
+        for (ReservationStatus status : ReservationStatus.values()) {
+            removeFrom(byStatus, status, animal);
+        }
+        return true;
+    }
+
+    public int size() {
+        return animals.size();
+    }
+
+    /**
+     * All registered animals in intake order.
+     * @return Read-only view of the animals.
+     */
+    public Set<RescueAnimal> getAll() {
+        return Collections.unmodifiableSet(animals);
+    }
+
+    /**
+     * Animals with the given name (names are not unique).
+     * @param name The name to look up.
+     * @return Matching animals in intake order.
+     */
+    public List<RescueAnimal> findByName(String name) {
+        return new ArrayList<>(bucket(byName, name));
+    }
+
+    /**
+     * Animals currently in the given status.
+     * @param status AVAILABLE or RESERVED.
+     * @return Matching animals in intake order.
+     */
+    public List<RescueAnimal> findByStatus(ReservationStatus status) {
+        List<RescueAnimal> results = new ArrayList<>();
+        for (RescueAnimal animal : bucket(byStatus, status)) {
+            // Skip animals whose status moved while the index was catching up
+            if (animal.getReservationStatus() == status) {
+                results.add(animal);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Animals of the given species type.
+     * @param type e.g. Dog.class or Monkey.class.
+     * @return Matching animals in intake order.
+     */
+    public <T extends RescueAnimal> List<T> findByType(Class<T> type) {
+        List<T> results = new ArrayList<>();
+        for (RescueAnimal animal : bucket(byType, type)) {
+            results.add(type.cast(animal));
+        }
+        return results;
+    }
+
+    /**
+     * Animals of the given species type with the given status.
+     * Walks the smaller of the two index buckets.
+     * @param type   e.g. Dog.class or Monkey.class.
+     * @param status AVAILABLE or RESERVED.
+     * @return Matching animals in intake order.
+     */
+    public <T extends RescueAnimal> List<T> findByTypeAndStatus(Class<T> type, ReservationStatus status) {
+        Set<RescueAnimal> ofType = bucket(byType, type);
+        Set<RescueAnimal> withStatus = bucket(byStatus, status);
+        Set<RescueAnimal> smaller = ofType.size() <= withStatus.size() ? ofType : withStatus;
+        List<T> results = new ArrayList<>();
+        for (RescueAnimal animal : smaller) {
+            if (type.isInstance(animal) && animal.getReservationStatus() == status) {
+                results.add(type.cast(animal));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Reserves the first available animal of the given type and name.
+     * Uses the animal's compare-and-set, so concurrent callers never both win.
+     * @param type e.g. Dog.class or Monkey.class.
+     * @param name The animal's name.
+     * @return The reserved animal, or null if none with that name is available.
+     */
+    public <T extends RescueAnimal> T reserve(Class<T> type, String name) {
+        for (RescueAnimal animal : bucket(byName, name)) {
+            if (type.isInstance(animal) && animal.tryReserve()) {
+                return type.cast(animal);
+            }
+        }
+        return null;
+    }
+
+    // Called by RescueAnimal.setName after the name changes
+    void nameChanged(RescueAnimal animal, String oldName) {
+        removeFrom(byName, oldName, animal);
+        addTo(byName, animal.getName(), animal);
+    }
+
+    /**
+     * Called after the animal's status changes. Moves it to the bucket for its
+     * current status and repeats if the status moved again meanwhile, so
+     * racing updates always settle on the latest status.
+     */
+    void statusChanged(RescueAnimal animal) {
+        ReservationStatus current;
+        do {
+            current = animal.getReservationStatus();
+            addTo(byStatus, current, animal);
+            for (ReservationStatus status : ReservationStatus.values()) {
+                if (status != current) {
+                    removeFrom(byStatus, status, animal);
+                }
+            }
+        } while (animal.getReservationStatus() != current);
+        if (animal.getRegistry() != this) {
+            // Removed while this update was in flight; undo any re-add
+            for (ReservationStatus status : ReservationStatus.values()) {
+                removeFrom(byStatus, status, animal);
+            }
+        }
+    }
+
+    private static <K> Set<RescueAnimal> bucket(Map<K, NavigableSet<RescueAnimal>> index, K key) {
+        Set<RescueAnimal> bucket = key == null ? null : index.get(key);
+        return bucket == null ? Collections.<RescueAnimal>emptySet() : bucket;
+    }
+
+    // compute/computeIfPresent lock only the key's bin, so empty buckets can be dropped safely
+    private static <K> void addTo(Map<K, NavigableSet<RescueAnimal>> index, K key, RescueAnimal animal) {
+        if (key == null) {
+            return;
+        }
+        index.compute(key, (k, bucket) -> {
+            NavigableSet<RescueAnimal> result = bucket == null ? new ConcurrentSkipListSet<>(INTAKE_ORDER) : bucket;
+            result.add(animal);
+            return result;
+        });
+    }
+
+    private static <K> void removeFrom(Map<K, NavigableSet<RescueAnimal>> index, K key, RescueAnimal animal) {
+        if (key == null) {
+            return;
+        }
+        index.computeIfPresent(key, (k, bucket) -> {
+            bucket.remove(animal);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+}
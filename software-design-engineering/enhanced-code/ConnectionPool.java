@@ -0,0 +1,353 @@
+package RescueAnimals.Src;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Small bounded pool of reusable JDBC connections used by DBUtil.
+ *
+ * Connections handed out are wrappers: closing one returns the real
+ * connection to the pool instead of closing it, so existing
+ * try-with-resources code keeps working unchanged. Each pooled connection
+ * also caches its prepared statements by SQL text.
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long validateAfterMillis;
+    private final long borrowTimeoutMillis;
+    private final int statementCacheSize;
+
+    private final Deque<PooledConnection> idle = new ArrayDeque<>(); // most recently used first
+    private int openCount;   // idle + borrowed + being opened
+    private boolean shutdown;
+
+    /**
+     * Constructor for ConnectionPool.
+     * @param url                 JDBC URL to open connections against
+     * @param maxSize             Maximum number of open connections
+     * @param idleTimeoutMillis   Idle connections older than this are closed
+     * @param validateAfterMillis Connections idle longer than this are health checked before reuse
+     * @param borrowTimeoutMillis How long a caller waits for a free connection
+     * @param statementCacheSize  Prepared statements cached per connection
+     */
+    public ConnectionPool(String url, int maxSize, long idleTimeoutMillis, long validateAfterMillis,
+                          long borrowTimeoutMillis, int statementCacheSize) {
+        if (maxSize < 1 || statementCacheSize < 0) {
+            throw new IllegalArgumentException("Invalid pool configuration");
+        }
+        this.url = url;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validateAfterMillis = validateAfterMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    /**
+     * Borrows a connection, reusing an idle one when possible.
+     * Closing the returned connection gives it back to the pool.
+     * @return A pooled connection wrapper.
+     * @throws SQLException if no connection frees up in time or a new one cannot be opened.
+     */
+    public Connection borrow() throws SQLException {
+        long deadline = System.currentTimeMillis() + borrowTimeoutMillis;
+        while (true) {
+            PooledConnection candidate = null;
+            boolean openNew = false;
+            List<PooledConnection> expired;
+            synchronized (this) {
+                if (shutdown) {
+                    throw new SQLException("Connection pool is shut down");
+                }
+                expired = removeExpired(System.currentTimeMillis());
+                if (!idle.isEmpty()) {
+                    candidate = idle.pollFirst();
+                } else if (openCount < maxSize) {
+                    openCount++;
+                    openNew = true;
+                } else if (expired.isEmpty()) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new SQLException("Timed out waiting for a database connection");
+                    }
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted waiting for a database connection", e);
+                    }
+                }
+            }
+            closeAll(expired);
+
+            if (openNew) {
+                try {
+                    return new PooledConnection(DriverManager.getConnection(url)).handOut();
+                } catch (SQLException | RuntimeException e) {
+                    discarded();
+                    throw e;
+                }
+            }
+            if (candidate != null) {
+                if (isHealthy(candidate)) {
+                    return candidate.handOut();
+                }
+                candidate.closeQuietly();
+                discarded();
+            }
+        }
+    }
+
+    /**
+     * Closes every idle connection and refuses further borrows.
+     * Borrowed connections are closed as they are returned.
+     */
+    public void shutdown() {
+        List<PooledConnection> toClose;
+        synchronized (this) {
+            shutdown = true;
+            toClose = new ArrayList<>(idle);
+            openCount -= idle.size();
+            idle.clear();
+            notifyAll();
+        }
+        closeAll(toClose);
+    }
+
+    // Health check for connections that sat idle long enough to have gone stale
+    private boolean isHealthy(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastUsed < validateAfterMillis) {
+            return true;
+        }
+        try {
+            return pooled.raw.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // Called with the pool lock held; idle connections sit newest first so expired ones are at the tail
+    private List<PooledConnection> removeExpired(long now) {
+        List<PooledConnection> expired = new ArrayList<>();
+        while (!idle.isEmpty() && now - idle.peekLast().lastUsed > idleTimeoutMillis) {
+            expired.add(idle.pollLast());
+            openCount--;
+        }
+        if (!expired.isEmpty()) {
+            notifyAll();
+        }
+        return expired;
+    }
+
+    private synchronized void discarded() {
+        openCount--;
+        notifyAll();
+    }
+
+    private void release(PooledConnection pooled) {
+        boolean reusable;
+        try {
+            reusable = !pooled.raw.isClosed();
+            if (reusable && !pooled.raw.getAutoCommit()) {
+                pooled.raw.rollback();
+                pooled.raw.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+        synchronized (this) {
+            if (reusable && !shutdown) {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.addFirst(pooled);
+                notifyAll();
+                return;
+            }
+        }
+        pooled.closeQuietly();
+        discarded();
+    }
+
+    private static void closeAll(List<PooledConnection> connections) {
+        for (PooledConnection pooled : connections) {
+            pooled.closeQuietly();
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A real connection owned by the pool together with its statement cache.
+     */
+    private class PooledConnection {
+        private final Connection raw;
+        private long lastUsed = System.currentTimeMillis();
+
+        // Cached statements in access order, least recently used first; never more than statementCacheSize
+        private final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+        }
+
+        // Wraps the connection for one borrower; close() on the wrapper returns it to the pool
+        Connection handOut() {
+            InvocationHandler handler = new InvocationHandler() {
+                private boolean closed;
+
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    String name = method.getName();
+                    if (name.equals("close")) {
+                        if (!closed) {
+                            closed = true;
+                            for (CachedStatement cached : statements.values()) {
+                                cached.reset();
+                            }
+                            release(PooledConnection.this);
+                        }
+                        return null;
+                    }
+                    if (name.equals("isClosed")) {
+                        return closed;
+                    }
+                    if (closed) {
+                        throw new SQLException("Connection is closed");
+                    }
+                    if (name.equals("prepareStatement") && args != null && args.length == 1) {
+                        return prepare((String) args[0]);
+                    }
+                    return ConnectionPool.invoke(raw, method, args);
+                }
+            };
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, handler);
+        }
+
+        // Returns the cached statement for this SQL, or a plain one if it is already in use
+        PreparedStatement prepare(String sql) throws SQLException {
+            CachedStatement cached = statements.get(sql);
+            if (cached != null && cached.inUse) {
+                return raw.prepareStatement(sql);
+            }
+            if (cached == null) {
+                // A full cache whose statements are all in use does not grow; the caller gets a plain statement
+                if (statements.size() >= statementCacheSize && !evictLeastRecentlyUsedIdle()) {
+                    return raw.prepareStatement(sql);
+                }
+                cached = new CachedStatement(raw.prepareStatement(sql));
+                statements.put(sql, cached);
+            }
+            cached.inUse = true;
+            return cached.view;
+        }
+
+        // Closes the least recently used statement that no borrower holds; false if all are in use
+        private boolean evictLeastRecentlyUsedIdle() {
+            Iterator<CachedStatement> iterator = statements.values().iterator();
+            while (iterator.hasNext()) {
+                CachedStatement cached = iterator.next();
+                if (!cached.inUse) {
+                    iterator.remove();
+                    cached.closeQuietly();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void closeQuietly() {
+            for (CachedStatement cached : statements.values()) {
+                cached.closeQuietly();
+            }
+            statements.clear();
+            try {
+                raw.close();
+            } catch (SQLException e) {
+                System.out.println("Error closing pooled connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A prepared statement kept open across borrows. Closing the view only
+     * closes its result set and clears parameters so the statement can be reused.
+     */
+    private static class CachedStatement {
+        private final PreparedStatement raw;
+        private final PreparedStatement view;
+        private ResultSet lastResult;
+        private boolean inUse;
+
+        CachedStatement(PreparedStatement raw) {
+            this.raw = raw;
+            this.view = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("close")) {
+                            reset();
+                            return null;
+                        }
+                        if (name.equals("isClosed")) {
+                            return !inUse;
+                        }
+                        if (!inUse) {
+                            throw new SQLException("Statement is closed");
+                        }
+                        Object result = ConnectionPool.invoke(raw, method, args);
+                        if (result instanceof ResultSet) {
+                            lastResult = (ResultSet) result;
+                        }
+                        return result;
+                    });
+        }
+
+        // Ends the current borrower's use of the statement
+        void reset() {
+            if (!inUse) {
+                return;
+            }
+            inUse = false;
+            try {
+                if (lastResult != null) {
+                    lastResult.close();
+                }
+                raw.clearParameters();
+            } catch (SQLException e) {
+                System.out.println("Error resetting cached statement: " + e.getMessage());
+            } finally {
+                lastResult = null;
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                raw.close();
+            } catch (SQLException e) {
+                System.out.println("Error closing cached statement: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package RescueAnimals.Src;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Read-through cache of user credentials used by DBUtil.validateUser.
+ *
+ * Entries are keyed by user_id and hold a salted PBKDF2 hash of the stored
+ * password, never the password itself. Unknown user IDs are cached too, so
+ * repeated attempts against the same ID are answered from memory.
+ * Entries expire after a TTL, the cache is bounded with LRU eviction, and
+ * the users_version row (bumped by triggers on the users table) is checked
+ * periodically so changes to users flush the cache.
+ */
+public class CredentialCache {
+
+    private static final String PASSWORD_SQL = "SELECT password FROM users WHERE user_id = ?";
+    private static final String VERSION_SQL = "SELECT version FROM users_version WHERE id = 1";
+
+    private static final String HASH_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private final Supplier<Connection> connections;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long versionCheckMillis;
+    private final int hashIterations;
+    private final SecureRandom random = new SecureRandom();
+
+    private final Map<String, Credential> entries;
+    private long knownVersion = -1;
+    private long lastVersionCheck;
+    private long generation; // bumped on every flush so loads that raced a flush are not cached
+
+    /**
+     * Constructor for CredentialCache.
+     * @param connections        Source of database connections
+     * @param maxEntries         Maximum cached user IDs (least recently used are evicted)
+     * @param ttlMillis          How long a cached entry is trusted
+     * @param versionCheckMillis How often users_version is checked for table changes
+     * @param hashIterations     PBKDF2 iterations used for the cached hashes
+     */
+    public CredentialCache(Supplier<Connection> connections, int maxEntries, long ttlMillis,
+                           long versionCheckMillis, int hashIterations) {
+        if (maxEntries < 1 || ttlMillis < 0 || hashIterations < 1) {
+            throw new IllegalArgumentException("Invalid credential cache configuration");
+        }
+        this.connections = connections;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.versionCheckMillis = versionCheckMillis;
+        this.hashIterations = hashIterations;
+        this.entries = new LinkedHashMap<String, Credential>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Credential> eldest) {
+                return size() > CredentialCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Checks a user ID and password, loading the user from the database on a miss.
+     * @param userId   The entered user ID.
+     * @param password The entered password.
+     * @return true if credentials are valid, false otherwise (including on database errors).
+     */
+    public boolean verify(String userId, String password) {
+        if (userId == null || password == null) {
+            return false;
+        }
+        checkVersion();
+        long now = System.currentTimeMillis();
+        Credential credential;
+        long loadGeneration;
+        synchronized (this) {
+            credential = entries.get(userId);
+            loadGeneration = generation;
+        }
+        if (credential == null || credential.expiresAt <= now) {
+            try {
+                credential = load(userId, now);
+            } catch (SQLException e) {
+                System.out.println("Error validating user: " + e.getMessage());
+                return false;
+            }
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(userId, credential);
+                }
+            }
+        }
+        if (credential.hash == null) {
+            return false; // unknown user ID
+        }
+        return MessageDigest.isEqual(credential.hash, hash(password, credential.salt));
+    }
+
+    /**
+     * Drops the cached entry for one user, e.g. after changing their password.
+     * @param userId The user ID to forget.
+     */
+    public synchronized void invalidate(String userId) {
+        generation++;
+        entries.remove(userId);
+    }
+
+    /**
+     * Drops every cached entry.
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    // Reads the stored password and keeps only a salted hash of it
+    private Credential load(String userId, long now) throws SQLException {
+        try (Connection conn = connections.get()) {
+            if (conn == null) {
+                throw new SQLException("No database connection");
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(PASSWORD_SQL)) {
+                pstmt.setString(1, userId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return new Credential(null, null, now + ttlMillis);
+                    }
+                    byte[] salt = new byte[SALT_BYTES];
+                    random.nextBytes(salt);
+                    return new Credential(salt, hash(rs.getString(1), salt), now + ttlMillis);
+                }
+            }
+        }
+    }
+
+    // Flushes the cache when users_version moved since the last check
+    private void checkVersion() {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (now - lastVersionCheck < versionCheckMillis) {
+                return;
+            }
+            lastVersionCheck = now;
+        }
+        long version;
+        try (Connection conn = connections.get()) {
+            if (conn == null) {
+                return;
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(VERSION_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return;
+                }
+                version = rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            System.out.println("Error checking users version: " + e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            if (version != knownVersion) {
+                knownVersion = version;
+                generation++;
+                entries.clear();
+            }
+        }
+    }
+
+    private byte[] hash(String password, byte[] salt) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, hashIterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(HASH_ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Password hashing unavailable", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    /**
+     * Cached credential for one user ID; a null hash marks an unknown user.
+     */
+    private static class Credential {
+        private final byte[] salt;
+        private final byte[] hash;
+        private final long expiresAt;
+
+        Credential(byte[] salt, byte[] hash, long expiresAt) {
+            this.salt = salt;
+            this.hash = hash;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
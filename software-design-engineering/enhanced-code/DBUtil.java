@@ -12,13 +12,53 @@ public class DBUtil {
     // Make sure you created this using schema.sql
     private static final String DB_URL = "jdbc:sqlite:rescue_animals.db";
 
+    // Connection pool settings
+    private static final int POOL_MAX_SIZE = 8;                      // Max open connections
+    private static final long POOL_IDLE_TIMEOUT_MS = 5 * 60 * 1000;  // Close connections idle this long
+    private static final long POOL_VALIDATE_AFTER_MS = 30 * 1000;    // Health check connections idle this long
+    private static final long POOL_BORROW_TIMEOUT_MS = 5 * 1000;     // Max wait for a free connection
+    private static final int STATEMENT_CACHE_SIZE = 16;              // Prepared statements cached per connection
+
+    // Shared pool so logins reuse connections instead of opening one per call
+    private static final ConnectionPool POOL = new ConnectionPool(DB_URL, POOL_MAX_SIZE,
+            POOL_IDLE_TIMEOUT_MS, POOL_VALIDATE_AFTER_MS, POOL_BORROW_TIMEOUT_MS, STATEMENT_CACHE_SIZE);
+
+    // Login audit settings
+    private static final int AUDIT_QUEUE_CAPACITY = 10000;        // Attempts waiting to be written
+    private static final int AUDIT_BATCH_SIZE = 200;              // Rows per transaction
+    private static final long AUDIT_FLUSH_INTERVAL_MS = 250;      // Max delay before a queued attempt is written
+    private static final long AUDIT_ENQUEUE_TIMEOUT_MS = 1000;    // Max wait for queue space before writing directly
+
+    // Background writer so logins do not wait on the login_logs insert
+    private static final LoginAuditWriter AUDIT_WRITER = new LoginAuditWriter(DBUtil::connect,
+            AUDIT_QUEUE_CAPACITY, AUDIT_BATCH_SIZE, AUDIT_FLUSH_INTERVAL_MS, AUDIT_ENQUEUE_TIMEOUT_MS);
+
+    // Credential cache settings
+    private static final int CREDENTIAL_CACHE_SIZE = 10000;             // Max cached user IDs
+    private static final long CREDENTIAL_TTL_MS = 10 * 60 * 1000;       // How long a cached entry is trusted
+    private static final long CREDENTIAL_VERSION_CHECK_MS = 1000;       // How often users_version is polled
+    private static final int CREDENTIAL_HASH_ITERATIONS = 10000;        // PBKDF2 iterations for cached hashes
+
+    // Read-through cache so repeat logins are verified in memory against salted hashes
+    private static final CredentialCache CREDENTIALS = new CredentialCache(DBUtil::connect,
+            CREDENTIAL_CACHE_SIZE, CREDENTIAL_TTL_MS, CREDENTIAL_VERSION_CHECK_MS, CREDENTIAL_HASH_ITERATIONS);
+
+    static {
+        // On exit, flush queued login attempts first, then close pooled connections
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            AUDIT_WRITER.close();
+            POOL.shutdown();
+        }));
+    }
+
     /**
      * Connects to the SQLite database.
+     * Connections come from a shared pool; closing one returns it to the pool.
      * @return Connection object or null if connection fails.
      */
     public static Connection connect() {
         try {
-            return DriverManager.getConnection(DB_URL);
+            return POOL.borrow();
         } catch (SQLException e) {
             System.out.println("Database connection failed: " + e.getMessage());
             return null;
@@ -27,39 +67,33 @@ public class DBUtil {
 
     /**
      * Validates user credentials against the users table.
+     * Users are loaded through a credential cache, so repeat attempts are
+     * checked in memory against a salted hash instead of querying the database.
      * @param userId   The entered user ID.
      * @param password The entered password.
      * @return true if credentials are valid, false otherwise.
      */
     public static boolean validateUser(String userId, String password) {
-        String sql = "SELECT * FROM users WHERE user_id = ? AND password = ?";
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, userId);
-            pstmt.setString(2, password);
+        return CREDENTIALS.verify(userId, password);
+    }
 
-            ResultSet rs = pstmt.executeQuery();
-            return rs.next(); // returns true if user exists
-        } catch (SQLException e) {
-            System.out.println("Error validating user: " + e.getMessage());
-            return false;
-        }
+    /**
+     * Forgets any cached credentials for a user.
+     * Call after changing a user's password or removing the user from this process.
+     * @param userId The user ID whose cached credentials should be dropped.
+     */
+    public static void invalidateCredentials(String userId) {
+        CREDENTIALS.invalidate(userId);
     }
 
     /**
      * Records a login attempt in the login_logs table.
+     * The attempt is queued and written in the background in batches;
+     * its timestamp is taken now, not when the row is written.
      * @param userId   The entered user ID.
      * @param status   SUCCESS or FAILURE.
      */
     public static void logLoginAttempt(String userId, String status) {
-        String sql = "INSERT INTO login_logs (user_id, status) VALUES (?, ?)";
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, userId);
-            pstmt.setString(2, status);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.out.println("Error logging attempt: " + e.getMessage());
-        }
+        AUDIT_WRITER.record(userId, status);
     }
 }
@@ -0,0 +1,186 @@
+package RescueAnimals.Src;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous writer for the login_logs forensic audit table.
+ *
+ * Login attempts are queued and written by a background thread in
+ * batches, one transaction per batch, so the login path never waits on
+ * a disk write. The time of each attempt is captured when it is queued,
+ * not when it is written, so the audit trail stays accurate.
+ */
+public class LoginAuditWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO login_logs (user_id, status, timestamp) VALUES (?, ?, ?)";
+
+    private final Supplier<Connection> connections;
+    private final BlockingQueue<AuditRecord> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long enqueueTimeoutMillis;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    /**
+     * Constructor for LoginAuditWriter. Starts the background writer thread.
+     * @param connections          Source of database connections (closed after each batch)
+     * @param queueCapacity        Maximum number of attempts waiting to be written
+     * @param batchSize            Maximum rows written per transaction
+     * @param flushIntervalMillis  Longest time a queued attempt waits before being written
+     * @param enqueueTimeoutMillis How long a login waits for queue space before writing directly
+     */
+    public LoginAuditWriter(Supplier<Connection> connections, int queueCapacity, int batchSize,
+                            long flushIntervalMillis, long enqueueTimeoutMillis) {
+        if (queueCapacity < 1 || batchSize < 1 || flushIntervalMillis < 1) {
+            throw new IllegalArgumentException("Invalid audit writer configuration");
+        }
+        this.connections = connections;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.enqueueTimeoutMillis = enqueueTimeoutMillis;
+        this.worker = new Thread(this::drainLoop, "login-audit-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queues a login attempt for writing.
+     * When the queue is full the caller waits for space (backpressure); if none
+     * frees up in time the attempt is written directly so it is never dropped.
+     * Once close() has started, attempts are written directly as well.
+     * @param userId The entered user ID.
+     * @param status SUCCESS or FAILURE.
+     */
+    public void record(String userId, String status) {
+        AuditRecord record = new AuditRecord(userId, status, System.currentTimeMillis());
+        if (running) {
+            try {
+                if (queue.offer(record, enqueueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    // close() may have already drained the queue; write anything it missed
+                    if (!running) {
+                        flushRemaining();
+                    }
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<AuditRecord> single = new ArrayList<>(1);
+        single.add(record);
+        write(single);
+    }
+
+    /**
+     * Stops the background thread and writes everything still queued.
+     * Safe to call more than once.
+     */
+    public void close() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything queued after the worker stopped is flushed here
+        flushRemaining();
+    }
+
+    // Background loop: wait for the first record, then collect up to a batch and write it
+    private void drainLoop() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AuditRecord first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // close() interrupts the worker; the loop condition ends it
+            }
+        }
+        flushRemaining();
+    }
+
+    private void flushRemaining() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes a batch of attempts in one transaction using JDBC batching.
+     * @param batch Attempts to write, oldest first.
+     */
+    private void write(List<AuditRecord> batch) {
+        try (Connection conn = connections.get()) {
+            if (conn == null) {
+                System.out.println("Error logging attempt: no database connection, " + batch.size() + " attempt(s) lost");
+                return;
+            }
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+                SimpleDateFormat format = timestampFormat();
+                for (AuditRecord record : batch) {
+                    pstmt.setString(1, record.userId);
+                    pstmt.setString(2, record.status);
+                    pstmt.setString(3, format.format(new Date(record.timeMillis)));
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            System.out.println("Error logging attempt: " + e.getMessage());
+        }
+    }
+
+    // Same text format SQLite uses for CURRENT_TIMESTAMP (UTC)
+    private static SimpleDateFormat timestampFormat() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format;
+    }
+
+    /**
+     * A single login attempt waiting to be written.
+     */
+    private static class AuditRecord {
+        private final String userId;
+        private final String status;
+        private final long timeMillis;
+
+        AuditRecord(String userId, String status, long timeMillis) {
+            this.userId = userId;
+            this.status = status;
+            this.timeMillis = timeMillis;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package RescueAnimals.Src;
+
+/**
+ * Reservation states a rescue animal can be in.
+ * Replaces the free-form status strings so reservations can be changed
+ * with an atomic compare-and-set.
+ */
+public enum ReservationStatus {
+    AVAILABLE("Available"),
+    RESERVED("Reserved");
+
+    private final String label;
+
+    ReservationStatus(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Parses a status label such as "Available" or "reserved".
+     * @param label The status text (case-insensitive).
+     * @return The matching status.
+     * @throws IllegalArgumentException if the label is not a known status.
+     */
+    public static ReservationStatus fromLabel(String label) {
+        for (ReservationStatus status : values()) {
+            if (status.label.equalsIgnoreCase(label)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Invalid status: " + label);
+    }
+
+    /**
+     * Display label used in menus and toString.
+     */
+    @Override
+    public String toString() {
+        return label;
+    }
+}
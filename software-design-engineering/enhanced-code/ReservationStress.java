@@ -0,0 +1,96 @@
+package RescueAnimals.Src;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stress benchmark for atomic reservations.
+ *
+ * For each thread count, every thread tries to reserve every animal in
+ * the registry (each starting at a different offset to maximise
+ * contention). It checks that each animal has exactly one winner and
+ * reports reservation attempts per second.
+ *
+ * Usage: java RescueAnimals.Src.ReservationStress [animals] [maxThreads]
+ */
+public class ReservationStress {
+
+    public static void main(String[] args) throws InterruptedException {
+        int animalCount = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors() * 2;
+
+        System.out.println("Animals: " + animalCount);
+        System.out.println("Threads | Attempts/sec |   Wins | Result");
+        boolean allPassed = true;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            allPassed &= run(animalCount, threads);
+        }
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs one round at the given thread count.
+     * @return true if every animal was reserved by exactly one thread.
+     */
+    private static boolean run(int animalCount, int threadCount) throws InterruptedException {
+        AnimalRegistry registry = new AnimalRegistry();
+        List<RescueAnimal> animals = new ArrayList<>(animalCount);
+        for (int i = 0; i < animalCount; i++) {
+            RescueAnimal animal = i % 2 == 0
+                    ? new Dog("dog" + i, ReservationStatus.AVAILABLE.toString())
+                    : new Monkey("monkey" + i, ReservationStatus.AVAILABLE.toString());
+            registry.add(animal);
+            animals.add(animal);
+        }
+
+        AtomicIntegerArray winners = new AtomicIntegerArray(animalCount);
+        AtomicLong attempts = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            int offset = (int) ((long) animalCount * t / threadCount);
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < animalCount; i++) {
+                    int index = (offset + i) % animalCount;
+                    if (animals.get(index).tryReserve()) {
+                        winners.incrementAndGet(index);
+                    }
+                }
+                attempts.addAndGet(animalCount);
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+
+        int totalWins = 0;
+        boolean exactlyOne = true;
+        for (int i = 0; i < animalCount; i++) {
+            totalWins += winners.get(i);
+            exactlyOne &= winners.get(i) == 1;
+        }
+        // The status index must agree with the animals once the threads are done
+        exactlyOne &= registry.findByStatus(ReservationStatus.RESERVED).size() == animalCount;
+        exactlyOne &= registry.findByStatus(ReservationStatus.AVAILABLE).isEmpty();
+
+        System.out.printf("%7d | %12.0f | %6d | %s%n", threadCount, attempts.get() / seconds, totalWins,
+                exactlyOne ? "PASS (one winner per animal)" : "FAIL");
+        return exactlyOne;
+    }
+}
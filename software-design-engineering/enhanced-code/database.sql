@@ -5,6 +5,7 @@
 
 -- Drop tables if they exist (for clean setup)
 DROP TABLE IF EXISTS login_logs;
+DROP TABLE IF EXISTS users_version;
 DROP TABLE IF EXISTS users;
 
 -- ==========================================================
@@ -22,6 +23,33 @@ INSERT INTO users (user_id, password) VALUES
 ('staff1', 'welcome1'),
 ('staff2', 'letmein');
 
+-- ==========================================================
+-- Users version table
+-- Single counter bumped on every change to users so the
+-- application's credential cache knows when to flush
+-- ==========================================================
+CREATE TABLE users_version (
+    id INTEGER PRIMARY KEY CHECK (id = 1), -- Always a single row
+    version INTEGER NOT NULL               -- Incremented by the triggers below
+);
+
+INSERT INTO users_version (id, version) VALUES (1, 0);
+
+CREATE TRIGGER users_after_insert AFTER INSERT ON users
+BEGIN
+    UPDATE users_version SET version = version + 1 WHERE id = 1;
+END;
+
+CREATE TRIGGER users_after_update AFTER UPDATE ON users
+BEGIN
+    UPDATE users_version SET version = version + 1 WHERE id = 1;
+END;
+
+CREATE TRIGGER users_after_delete AFTER DELETE ON users
+BEGIN
+    UPDATE users_version SET version = version + 1 WHERE id = 1;
+END;
+
 -- ==========================================================
 -- Login Logs table
 -- Tracks all login attempts for forensic auditing
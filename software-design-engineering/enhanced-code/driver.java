@@ -2,7 +2,7 @@
 package RescueAnimals.Src;
 
 // Import statements (fixed typos from original)
-import java.util.ArrayList;   // For storing Dog and Monkey lists
+import java.util.List;        // For registry query results
 import java.util.Scanner;    // For reading user input
 import java.sql.*;           // For database connection, authentication, and logging
 
@@ -24,11 +24,9 @@ public class Driver {
     // =========================================
     // ORIGINAL VARIABLES
     // =========================================
-    // List of dogs in the system
-    private static ArrayList<Dog> dogList = new ArrayList<Dog>();
-
-    // List of monkeys in the system
-    private static ArrayList<Monkey> monkeyList = new ArrayList<Monkey>();
+    // Dogs and monkeys in the system, indexed by name, status and species
+    // (replaces the original dogList and monkeyList)
+    private static AnimalRegistry registry = new AnimalRegistry();
 
     // Scanner for menu input
     private static Scanner scanner = new Scanner(System.in);
@@ -123,26 +121,69 @@ public class Driver {
     }
 
     // =========================================
-    // ORIGINAL: Placeholder methods for menu
+    // ORIGINAL: Menu actions (now backed by AnimalRegistry)
     // =========================================
     private static void intakeNewDog() {
-        // Original project logic to intake a dog would go here
-        System.out.println("Intake new dog - (original functionality placeholder).");
+        System.out.print("Enter the dog's name: ");
+        String name = scanner.nextLine();
+        registry.add(new Dog(name, ReservationStatus.AVAILABLE.toString()));
+        System.out.println("Dog " + name + " added.");
     }
 
     private static void intakeNewMonkey() {
-        // Original project logic to intake a monkey would go here
-        System.out.println("Intake new monkey - (original functionality placeholder).");
+        System.out.print("Enter the monkey's name: ");
+        String name = scanner.nextLine();
+        registry.add(new Monkey(name, ReservationStatus.AVAILABLE.toString()));
+        System.out.println("Monkey " + name + " added.");
     }
 
     private static void reserveAnimal() {
-        // Original project logic to reserve an animal would go here
-        System.out.println("Reserve animal - (original functionality placeholder).");
+        System.out.print("Enter animal type (dog/monkey): ");
+        String type = scanner.nextLine();
+        System.out.print("Enter the animal's name: ");
+        String name = scanner.nextLine();
+
+        // Name index lookup instead of scanning every species list
+        RescueAnimal reserved;
+        if (type.equalsIgnoreCase("dog")) {
+            reserved = registry.reserve(Dog.class, name);
+        } else if (type.equalsIgnoreCase("monkey")) {
+            reserved = registry.reserve(Monkey.class, name);
+        } else {
+            System.out.println("Unknown animal type.");
+            return;
+        }
+
+        if (reserved == null) {
+            System.out.println("No available " + type.toLowerCase() + " named " + name + ".");
+        } else {
+            System.out.println("Reserved: " + reserved);
+        }
     }
 
     private static void printAnimals() {
-        // Original project logic to print animals would go here
-        System.out.println("Print animals - (original functionality placeholder).");
+        System.out.print("Print [d]ogs, [m]onkeys or [a]vailable animals: ");
+        String choice = scanner.nextLine();
+
+        // Each option reads one index bucket, so cost is proportional to the animals printed
+        List<? extends RescueAnimal> animals;
+        if (choice.equalsIgnoreCase("d")) {
+            animals = registry.findByType(Dog.class);
+        } else if (choice.equalsIgnoreCase("m")) {
+            animals = registry.findByType(Monkey.class);
+        } else if (choice.equalsIgnoreCase("a")) {
+            animals = registry.findByStatus(ReservationStatus.AVAILABLE);
+        } else {
+            System.out.println("Invalid choice.");
+            return;
+        }
+
+        if (animals.isEmpty()) {
+            System.out.println("No animals to show.");
+        }
+        for (RescueAnimal animal : animals) {
+            System.out.println(animal);
+        }
     }
 
     // =========================================
@@ -188,18 +229,11 @@ public class Driver {
 
     /**
      * Logs login attempts for forensic auditing.
-     * (Placeholder – assumes `login_logs` table exists)
+     * Delegates to DBUtil, which queues the attempt for the background
+     * audit writer so the menu appears without waiting on the insert.
      */
     private static void logLoginAttempt(String userId, String status) {
-        try {
-            String sql = "INSERT INTO login_logs (user_id, status, timestamp) VALUES (?, ?, NOW())";
-            PreparedStatement stmt = connection.prepareStatement(sql);
-            stmt.setString(1, userId);
-            stmt.setString(2, status);
-            stmt.executeUpdate();
-            System.out.println("Login attempt logged.");
-        } catch (Exception e) {
-            System.out.println("Error logging attempt: " + e.getMessage());
-        }
+        DBUtil.logLoginAttempt(userId, status);
+        System.out.println("Login attempt logged.");
     }
 }
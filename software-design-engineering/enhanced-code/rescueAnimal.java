@@ -1,22 +1,35 @@
 package RescueAnimals.Src;
 
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
 /**
  * Base class representing a rescue animal.
  * Demonstrates inheritance and encapsulation.
  * Extended by Dog and Monkey classes.
  */
 public class RescueAnimal {
-    private String name;    // Animal's name
-    private String status;  // Availability status (Available / Reserved)
+
+    // Lock-free compare-and-set on the status field
+    private static final AtomicReferenceFieldUpdater<RescueAnimal, ReservationStatus> STATUS =
+            AtomicReferenceFieldUpdater.newUpdater(RescueAnimal.class, ReservationStatus.class, "status");
+
+    private volatile String name;               // Animal's name
+    private volatile ReservationStatus status;  // Availability status (Available / Reserved)
+
+    // Registry holding this animal, told about name/status changes so its indexes stay correct
+    private volatile AnimalRegistry registry;
+
+    // Intake order assigned by the registry
+    private long registrySequence;
 
     /**
      * Constructor for RescueAnimal.
      * @param name  The animal's name
-     * @param status The availability status
+     * @param status The availability status (Available or Reserved)
      */
     public RescueAnimal(String name, String status) {
         this.name = name;
-        this.status = status;
+        this.status = ReservationStatus.fromLabel(status);
     }
 
     // Getter and setter for name
@@ -24,15 +37,85 @@ public class RescueAnimal {
         return name;
     }
     public void setName(String name) {
+        String oldName = this.name;
         this.name = name;
+        AnimalRegistry owner = registry;
+        if (owner != null) {
+            owner.nameChanged(this, oldName);
+        }
     }
 
-    // Getter and setter for status
+    // Getter and setter for status (label form, kept for existing callers)
     public String getStatus() {
-        return status;
+        return status.toString();
     }
     public void setStatus(String status) {
+        setReservationStatus(ReservationStatus.fromLabel(status));
+    }
+
+    // Getter and setter for status
+    public ReservationStatus getReservationStatus() {
+        return status;
+    }
+    public void setReservationStatus(ReservationStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Invalid status: null");
+        }
         this.status = status;
+        statusChanged();
+    }
+
+    /**
+     * Atomically reserves the animal if it is available.
+     * When many threads race for the same animal exactly one succeeds.
+     * @return true if this call reserved the animal.
+     */
+    public boolean tryReserve() {
+        return compareAndSetStatus(ReservationStatus.AVAILABLE, ReservationStatus.RESERVED);
+    }
+
+    /**
+     * Atomically returns a reserved animal to available.
+     * @return true if this call released the reservation.
+     */
+    public boolean release() {
+        return compareAndSetStatus(ReservationStatus.RESERVED, ReservationStatus.AVAILABLE);
+    }
+
+    /**
+     * Changes the status only if it currently equals the expected one.
+     * @param expected The status the animal must be in.
+     * @param update   The status to move it to.
+     * @return true if the status was changed.
+     */
+    public boolean compareAndSetStatus(ReservationStatus expected, ReservationStatus update) {
+        if (update == null) {
+            throw new IllegalArgumentException("Invalid status: null");
+        }
+        if (!STATUS.compareAndSet(this, expected, update)) {
+            return false;
+        }
+        statusChanged();
+        return true;
+    }
+
+    private void statusChanged() {
+        AnimalRegistry owner = registry;
+        if (owner != null) {
+            owner.statusChanged(this);
+        }
+    }
+
+    // Registry membership, managed by AnimalRegistry.add/remove
+    AnimalRegistry getRegistry() {
+        return registry;
+    }
+    void setRegistry(AnimalRegistry registry, long sequence) {
+        this.registrySequence = sequence;
+        this.registry = registry;
+    }
+    long getRegistrySequence() {
+        return registrySequence;
     }
 
     /**